@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Compares request latency and allocation with the old logging setup (synchronous console
+# pattern, every controller line, show-sql on) against the current one (async JSON, sampled
+# controller lines, show-sql off). Logs go to a file in both cases, as they would in a container.
+#
+# Load is generated with hey (https://github.com/rakyll/hey); allocation per request comes from
+# the jvm.gc.memory.allocated meter. Postgres and Redis from application.properties must be reachable.
+#
+# The table is also written to target/logbench/results.txt, headed by the commit and load settings,
+# so it can be pasted as-is into a commit message or review.
+#
+# Usage: scripts/logging-benchmark.sh [requests] [concurrency]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+REQUESTS="${1:-20000}"
+CONCURRENCY="${2:-32}"
+PORT="${PORT:-8080}"
+BASE_URL="http://localhost:${PORT}"
+# Plain build: the -exec classifier only exists with -Pcds, which would also switch on AOT processing
+APP_JAR="target/TicketApp-0.0.1-SNAPSHOT.jar"
+RESULTS="target/logbench/results.txt"
+EMAIL="logbench-$(date +%s)@example.com"
+# Lift the load-shedding limits so both modes serve every request and only logging differs
+COMMON_ARGS=(--ticketapp.ids.worker-id=0 --ticketapp.concurrency-limit.min-limit=1000 --ticketapp.concurrency-limit.initial-limit=1000
+             --ticketapp.concurrency-limit.max-limit=1000 --ticketapp.bulkhead.read.max-queued=1000
+             --ticketapp.bulkhead.read.max-wait-ms=10000)
+
+command -v hey > /dev/null || { echo "hey is required for load generation" >&2; exit 1; }
+
+echo "Building..."
+./mvnw -q -B -DskipTests package
+[ -f "${APP_JAR}" ] || { echo "${APP_JAR} was not built" >&2; exit 1; }
+mkdir -p target/logbench
+
+allocated_bytes() {
+    curl -fs "${BASE_URL}/actuator/metrics/jvm.gc.memory.allocated" \
+        | grep -o '"value":[0-9.E+]*' | head -1 | cut -d: -f2 | awk '{ printf "%.0f", $1 }'
+}
+
+# Starts the app with the given extra arguments, runs a warm-up and a measured pass, prints a row
+run_mode() {
+    local name="$1"
+    shift
+    local pid user_id url before after report
+    java -jar "${APP_JAR}" --server.port="${PORT}" "${COMMON_ARGS[@]}" "$@" > "target/logbench/${name}.log" 2>&1 &
+    pid=$!
+    until curl -fs -o /dev/null "${BASE_URL}/actuator/health"; do
+        kill -0 "${pid}" 2> /dev/null || { echo "${name}: process exited during startup" >&2; return 1; }
+        sleep 0.2
+    done
+
+    curl -fs -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${name}-${EMAIL}\",\"password\":\"secret\",\"role\":\"CUSTOMER\"}" "${BASE_URL}/signup"
+    user_id=$(curl -fs -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${name}-${EMAIL}\",\"password\":\"secret\",\"role\":\"CUSTOMER\"}" "${BASE_URL}/login" \
+        | grep -o '"user_id":"[0-9]*"' | cut -d: -f2 | tr -d '"')
+    url="${BASE_URL}/ticket/count/search?userId=${user_id}&role=CUSTOMER&category=ALL"
+
+    hey -n "$(( REQUESTS / 4 ))" -c "${CONCURRENCY}" "${url}" > /dev/null
+    before=$(allocated_bytes)
+    report=$(hey -n "${REQUESTS}" -c "${CONCURRENCY}" "${url}")
+    after=$(allocated_bytes)
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+
+    printf "%-10s %10s %10s %10s %12d\n" "${name}" \
+        "$(echo "${report}" | awk '/Requests\/sec/ { print $2 }')" \
+        "$(echo "${report}" | awk '/ 50%/ { print $3 }')" \
+        "$(echo "${report}" | awk '/ 99%/ { print $3 }')" \
+        $(( (after - before) / REQUESTS ))
+}
+
+{
+    echo "commit $(git rev-parse --short HEAD 2> /dev/null || echo unknown), ${REQUESTS} requests, concurrency ${CONCURRENCY}"
+    printf "%-10s %10s %10s %10s %12s\n" "mode" "req/s" "p50 (s)" "p99 (s)" "bytes/req"
+    run_mode "before" --logging.config=scripts/logback-sync.xml --spring.jpa.show-sql=true
+    run_mode "after"
+} | tee "${RESULTS}"
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Compares startup of the standard fat jar with the AOT + AppCDS build (and the native
+# executable, if one was built with ./mvnw -Pnative native:compile).
+#
+# Reports time-to-first-request (launch until /actuator/health answers) and resident memory
+# at that point. Postgres and Redis from application.properties must be reachable.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+HEALTH_URL="http://localhost:${PORT}/actuator/health"
+MAIN_CLASS="com.example.TicketApp.TicketManagementApplication"
+JAR="target/TicketApp-0.0.1-SNAPSHOT.jar"
+EXEC_JAR="target/TicketApp-0.0.1-SNAPSHOT-exec.jar"
+CDS_ARCHIVE="target/cds/app.jsa"
+NATIVE_BIN="target/TicketApp"
+CDS_CLASSPATH="${JAR}:target/cds/lib/*"
+
+echo "Building with -Pcds (AOT processing + flat classpath)..."
+./mvnw -q -B -Pcds -DskipTests package
+
+echo "Training run to dump the AppCDS archive..."
+java -XX:ArchiveClassesAtExit="${CDS_ARCHIVE}" \
+     -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+     -cp "${CDS_CLASSPATH}" "${MAIN_CLASS}" > target/cds/training.log 2>&1
+
+# Starts the given command, waits for the first successful request, prints "<millis> <rss-kb>"
+measure() {
+    local start end pid rss
+    start=$(date +%s%N)
+    "$@" --server.port="${PORT}" > /dev/null 2>&1 &
+    pid=$!
+    until curl -fs -o /dev/null "${HEALTH_URL}"; do
+        if ! kill -0 "${pid}" 2> /dev/null; then
+            echo "process exited before serving a request" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    rss=$(ps -o rss= -p "${pid}" | tr -d ' ')
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+    echo "$(( (end - start) / 1000000 )) ${rss}"
+}
+
+run_mode() {
+    local name="$1"
+    shift
+    local total_ms=0 total_rss=0 result ms rss
+    for _ in $(seq 1 "${RUNS}"); do
+        result=$(measure "$@")
+        ms=${result% *}
+        rss=${result#* }
+        total_ms=$(( total_ms + ms ))
+        total_rss=$(( total_rss + rss ))
+    done
+    printf "%-12s %10d ms %10d MB\n" "${name}" $(( total_ms / RUNS )) $(( total_rss / RUNS / 1024 ))
+}
+
+printf "%-12s %13s %13s\n" "mode" "first-request" "rss"
+run_mode "standard" java -jar "${EXEC_JAR}"
+run_mode "aot+cds" java -XX:SharedArchiveFile="${CDS_ARCHIVE}" -Dspring.aot.enabled=true \
+    -cp "${CDS_CLASSPATH}" "${MAIN_CLASS}"
+if [ -x "${NATIVE_BIN}" ]; then
+    run_mode "native" "${NATIVE_BIN}"
+fi
@@ -0,0 +1,12 @@
+package com.example.TicketApp.CustomErrors;
+
+public class ReplyPendingException extends RuntimeException {
+
+    public ReplyPendingException(String message) {
+        super(message);
+    }
+
+    public ReplyPendingException(String message, Object... args) {
+        super(String.format(message, args));
+    }
+}
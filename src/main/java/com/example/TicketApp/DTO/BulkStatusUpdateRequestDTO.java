@@ -0,0 +1,23 @@
+package com.example.TicketApp.DTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequestDTO {
+
+    @JsonProperty("ticket_ids")
+    private List<Long> ticketIds;   // Explicit tickets to resolve; when empty the filter below is used
+
+    private String category;        // Filter: PREBOOKING, POSTBOOKING or ALL
+
+    @JsonProperty("created_before")
+    private LocalDateTime createdBefore;  // Filter: only tickets opened before this time
+}
@@ -0,0 +1,11 @@
+package com.example.TicketApp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkStatusUpdateResultDTO {
+    private long ticketId;
+    private String outcome;  // RESOLVED, ALREADY_RESOLVED, NOT_FOUND or FORBIDDEN
+}
@@ -0,0 +1,19 @@
+package com.example.TicketApp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ShardMoveDTO {
+    private String moveId;
+    private long customerId;
+    private int targetShard;
+    private String state;          // QUEUED, RUNNING, COMPLETED or FAILED
+    private Integer movedTickets;  // Set once COMPLETED
+    private String error;          // Set once FAILED
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
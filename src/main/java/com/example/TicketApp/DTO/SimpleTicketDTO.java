@@ -3,10 +3,12 @@ package com.example.TicketApp.DTO;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class SimpleTicketDTO {
     private long ticketId;
     private String description;
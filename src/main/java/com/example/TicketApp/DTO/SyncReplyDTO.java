@@ -0,0 +1,21 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncReplyDTO {
+    private Long responseId;
+    private Long ticketId;
+    private Long userId;
+    private Role role;
+    private String responseText;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
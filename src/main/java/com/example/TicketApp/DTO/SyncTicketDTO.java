@@ -0,0 +1,25 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTicketDTO {
+    private Long ticketId;
+    private Status status;
+    private Category category;
+    private String description;
+    private Long customerId;
+    private Long agentId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime resolvedAt;
+    private LocalDateTime escalatedAt;
+}
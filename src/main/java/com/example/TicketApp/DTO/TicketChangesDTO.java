@@ -0,0 +1,23 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.entity.SyncTombstone;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// One page of a user's delta sync. Clients store nextSince/nextSinceId and send them back;
+// resetRequired means the cursor is older than the tombstone retention and a full sync is needed.
+@Data
+@NoArgsConstructor
+public class TicketChangesDTO {
+    private List<SyncTicketDTO> tickets = new ArrayList<>();
+    private List<SyncReplyDTO> replies = new ArrayList<>();
+    private List<SyncTombstone> deleted = new ArrayList<>();
+    private LocalDateTime nextSince;
+    private long nextSinceId;
+    private boolean hasMore;
+    private boolean resetRequired;
+}
@@ -0,0 +1,15 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TicketDeadlineDTO {
+    private Long ticketId;
+    private Category category;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TicketIndexRowDTO {
+    private Long ticketId;
+    private Long customerId;
+    private Long agentId;
+    private Status status;
+    private Category category;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TicketOwnershipDTO {
+    private Long ticketId;
+    private Long customerId;
+    private Long agentId;
+    private Status status;
+}
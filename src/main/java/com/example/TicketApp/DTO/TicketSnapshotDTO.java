@@ -0,0 +1,25 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Viewer-independent ticket header as cached in Redis; emails are oriented per caller on read
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSnapshotDTO {
+    private Long ticketId;
+    private Status status;
+    private Category category;
+    private LocalDateTime createdAt;
+    private String description;
+    private Long customerId;
+    private String customerEmail;
+    private Long agentId;
+    private String agentEmail;
+}
@@ -0,0 +1,65 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.services.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Separate concurrency limits for ticket reads and ticket/reply writes, so a storm of slow
+// searches can hold at most the read share of Tomcat threads and Hikari connections.
+@Component
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    private static final String BULKHEAD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+    private static final String BUSY_BODY =
+            "{\"status\":\"" + Constants.STATUS_ERROR + "\",\"message\":\"" + Constants.MESSAGE_SERVICE_BUSY + "\"}";
+
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+
+    public BulkheadInterceptor(MeterRegistry meterRegistry,
+                               @Value("${ticketapp.bulkhead.read.max-concurrent:6}") int readMaxConcurrent,
+                               @Value("${ticketapp.bulkhead.read.max-queued:20}") int readMaxQueued,
+                               @Value("${ticketapp.bulkhead.read.max-wait-ms:100}") long readMaxWaitMs,
+                               @Value("${ticketapp.bulkhead.write.max-concurrent:4}") int writeMaxConcurrent,
+                               @Value("${ticketapp.bulkhead.write.max-queued:20}") int writeMaxQueued,
+                               @Value("${ticketapp.bulkhead.write.max-wait-ms:250}") long writeMaxWaitMs) {
+        this.readBulkhead = new Bulkhead("read", readMaxConcurrent, readMaxQueued, readMaxWaitMs, meterRegistry);
+        this.writeBulkhead = new Bulkhead("write", writeMaxConcurrent, writeMaxQueued, writeMaxWaitMs, meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        Bulkhead bulkhead = "GET".equals(request.getMethod()) ? readBulkhead : writeBulkhead;
+        if (bulkhead.tryEnter()) {
+            request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+            return true;
+        }
+
+        logger.warn("Bulkhead full, rejecting {} {}", request.getMethod(), request.getRequestURI());
+        response.setStatus(Constants.HTTP_STATUS_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(BUSY_BODY);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object bulkhead = request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (bulkhead instanceof Bulkhead entered) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            entered.exit();
+        }
+    }
+}
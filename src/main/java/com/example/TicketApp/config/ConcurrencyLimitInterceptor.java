@@ -0,0 +1,76 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.services.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+// Sheds requests with 503 once the adaptive in-flight limit is reached. The limit follows observed
+// latency, so it opens up off-peak and closes down when Postgres slows.
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+    private static final String SHED_BODY =
+            "{\"status\":\"" + Constants.STATUS_ERROR + "\",\"message\":\"" + Constants.MESSAGE_SERVICE_BUSY + "\"}";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter admitted;
+    private final Counter shed;
+
+    public ConcurrencyLimitInterceptor(MeterRegistry meterRegistry,
+                                       @Value("${ticketapp.concurrency-limit.initial-limit:20}") int initialLimit,
+                                       @Value("${ticketapp.concurrency-limit.min-limit:4}") int minLimit,
+                                       @Value("${ticketapp.concurrency-limit.max-limit:200}") int maxLimit,
+                                       @Value("${ticketapp.concurrency-limit.window-ms:1000}") long windowMs,
+                                       @Value("${ticketapp.concurrency-limit.min-window-samples:10}") int minWindowSamples,
+                                       @Value("${ticketapp.concurrency-limit.tolerance:1.5}") double tolerance,
+                                       @Value("${ticketapp.concurrency-limit.smoothing:0.2}") double smoothing) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, Duration.ofMillis(windowMs).toNanos(),
+                minWindowSamples, tolerance, smoothing, System.nanoTime());
+
+        this.admitted = meterRegistry.counter("ticketapp.concurrency_limit.calls", "result", "admitted");
+        this.shed = meterRegistry.counter("ticketapp.concurrency_limit.calls", "result", "shed");
+        meterRegistry.gauge("ticketapp.concurrency_limit.limit", limiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("ticketapp.concurrency_limit.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (limiter.tryAcquire()) {
+            admitted.increment();
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            return true;
+        }
+
+        shed.increment();
+        logger.warn("Concurrency limit {} reached, shedding {} {}", limiter.getLimit(), request.getMethod(), request.getRequestURI());
+        response.setStatus(Constants.HTTP_STATUS_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(SHED_BODY);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            request.removeAttribute(START_ATTRIBUTE);
+            long now = System.nanoTime();
+            limiter.release(now - start, now);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.TicketApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Small, bounded pool for login-time cache prewarming. A full queue rejects new work
+    // instead of blocking the caller, so prewarming can never slow down /login.
+    @Bean
+    public ThreadPoolTaskExecutor prewarmExecutor(@Value("${ticketapp.prewarm.threads:2}") int threads,
+                                                  @Value("${ticketapp.prewarm.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cache-prewarm-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Customer moves between shards run one at a time off the request threads, since each one
+    // waits out the placement grace period. Running moves are interrupted on shutdown.
+    @Bean
+    @ConditionalOnProperty(name = "ticketapp.sharding.enabled", havingValue = "true")
+    public ThreadPoolTaskExecutor shardMoveExecutor(@Value("${ticketapp.sharding.move-queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("shard-move-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.services.TimeOrderedIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+// Hands the configured worker id to the id generator Hibernate uses.
+// Every running instance needs its own ticketapp.ids.worker-id; there is deliberately no default,
+// since two instances sharing one could issue the same id in the same millisecond.
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    public IdGeneratorConfig(@Value("${ticketapp.ids.worker-id:#{null}}") Integer workerId) {
+        if (workerId == null) {
+            throw new IllegalStateException("ticketapp.ids.worker-id must be set to a value unique to this instance (0-"
+                    + (TimeOrderedIdGenerator.MAX_WORKERS - 1) + ")");
+        }
+        if (workerId < 0 || workerId >= TimeOrderedIdGenerator.MAX_WORKERS) {
+            throw new IllegalStateException("ticketapp.ids.worker-id must be between 0 and "
+                    + (TimeOrderedIdGenerator.MAX_WORKERS - 1) + ", got " + workerId);
+        }
+        TimeOrderedIdGenerator.configure(workerId);
+        logger.info("Generating ids as worker {}", workerId);
+    }
+}
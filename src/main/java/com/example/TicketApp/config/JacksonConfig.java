@@ -0,0 +1,20 @@
+package com.example.TicketApp.config;
+
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Generated ids (TimeOrderedIdGenerator) are above 2^53, which JavaScript clients cannot hold as
+// numbers without rounding. Every long in an API response is therefore written as a JSON string;
+// request bodies still accept either form.
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer longsAsStrings() {
+        return builder -> builder
+                .serializerByType(Long.class, ToStringSerializer.instance)
+                .serializerByType(Long.TYPE, ToStringSerializer.instance);
+    }
+}
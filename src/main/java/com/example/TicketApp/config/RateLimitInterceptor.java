@@ -0,0 +1,54 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.services.RateLimiterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private static final String RATE_LIMITED_BODY =
+            "{\"status\":\"" + Constants.STATUS_ERROR + "\",\"message\":\"" + Constants.MESSAGE_TOO_MANY_REQUESTS + "\"}";
+
+    private final RateLimiterService rateLimiterService;
+
+    public RateLimitInterceptor(RateLimiterService rateLimiterService) {
+        this.rateLimiterService = rateLimiterService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Only write endpoints are limited; reads go straight through
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+
+        String clientKey = resolveClientKey(request);
+        long waitMillis = rateLimiterService.tryAcquire(clientKey);
+        if (waitMillis == 0) {
+            return true;
+        }
+
+        logger.warn("Rate limit exceeded for {} on {}", clientKey, request.getRequestURI());
+        response.setStatus(Constants.HTTP_STATUS_TOO_MANY_REQUESTS);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, (waitMillis + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(RATE_LIMITED_BODY);
+        return false;
+    }
+
+    // Only registered for the anonymous endpoints (signup, login), where no user id exists yet; the
+    // user-facing write endpoints are limited per user in their controllers
+    private String resolveClientKey(HttpServletRequest request) {
+        return RateLimiterService.ipKey(request.getRemoteAddr());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.services.ShardContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Picks the shard bound to the current thread; without one, calls go to shard 0
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.get();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.services.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Replaces the single datasource with one pool per shard behind a routing datasource.
+// Every shard is migrated with the same Flyway scripts before JPA starts.
+@Configuration
+@ConditionalOnProperty(name = "ticketapp.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    // Identity columns whose values must not collide between shards
+    private static final String[][] SHARDED_IDENTITIES = {
+            {"booking", "booking_id"},
+            {"tickets", "ticket_id"},
+            {"ticket_responses", "response_id"}
+    };
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties shardingProperties) {
+        List<ShardingProperties.Shard> shards = shardingProperties.getShards();
+        if (shards.size() < 2) {
+            throw new IllegalStateException("Sharding needs at least two entries in ticketapp.sharding.shards");
+        }
+        if (shards.size() > ShardRouter.MAX_SHARDS) {
+            throw new IllegalStateException("Shard identity ranges allow at most " + ShardRouter.MAX_SHARDS + " shards");
+        }
+
+        List<DataSource> dataSources = new ArrayList<>(shards.size());
+        for (int index = 0; index < shards.size(); index++) {
+            ShardingProperties.Shard shard = shards.get(index);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + index);
+            dataSource.setMaximumPoolSize(shardingProperties.getMaxPoolSizePerShard());
+
+            migrate(dataSource);
+            reserveIdRange(dataSource, index);
+            dataSources.add(dataSource);
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int index = 0; index < shardDataSources.size(); index++) {
+            targets.put(index, shardDataSources.get(index));
+        }
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(shardDataSources.get(0));
+        routingDataSource.afterPropertiesSet();
+
+        // Defer the physical connection to the first statement so the shard chosen inside a
+        // service method still applies when a transaction was opened just before it
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    // Moves each shard's identity sequences into its own range, so ids stay globally unique
+    // and the home shard of any ticket, reply or booking can be read off its id
+    private void reserveIdRange(DataSource dataSource, int shardIndex) {
+        if (shardIndex == 0) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long rangeStart = shardIndex * ShardRouter.ID_RANGE_PER_SHARD;
+        long rangeEnd = rangeStart + ShardRouter.ID_RANGE_PER_SHARD;
+        for (String[] identity : SHARDED_IDENTITIES) {
+            // Only ids from this shard's own range count; rows moved in from other shards keep theirs
+            jdbcTemplate.queryForObject(
+                    "SELECT setval(pg_get_serial_sequence('" + identity[0] + "', '" + identity[1] + "'), " +
+                            "GREATEST((SELECT COALESCE(MAX(" + identity[1] + "), 0) FROM " + identity[0] +
+                            " WHERE " + identity[1] + " >= ? AND " + identity[1] + " < ?), ?))",
+                    Long.class, rangeStart, rangeEnd, rangeStart);
+        }
+        logger.info("Shard {} allocates ids from {}", shardIndex, rangeStart);
+    }
+
+    public record ShardDataSources(List<DataSource> dataSources) {
+
+        public int size() {
+            return dataSources.size();
+        }
+
+        public DataSource get(int shard) {
+            return dataSources.get(shard);
+        }
+    }
+}
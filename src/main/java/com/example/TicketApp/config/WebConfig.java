@@ -15,6 +15,17 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    public WebConfig(ConcurrencyLimitInterceptor concurrencyLimitInterceptor, RateLimitInterceptor rateLimitInterceptor,
+                     BulkheadInterceptor bulkheadInterceptor) {
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.bulkheadInterceptor = bulkheadInterceptor;
+    }
+
     @Override
     public void configurePathMatch(PathMatchConfigurer pathMatchConfigurer) {
 
@@ -42,7 +53,17 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry interceptorRegistry) {
-
+        // Registered first so overload is shed before any other work is done. Admin operations
+        // (exports, shard moves) run for minutes and would skew the latency samples.
+        interceptorRegistry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/actuator/**", "/admin/**");
+        // Anonymous endpoints by client IP; ticket and reply writes are limited per user in their controllers
+        interceptorRegistry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/signup", "/login");
+        // Reads (GET) and writes get separate concurrency limits
+        interceptorRegistry.addInterceptor(bulkheadInterceptor)
+                .addPathPatterns("/ticket", "/ticket/**", "/ticket-response/**");
     }
 
     @Override
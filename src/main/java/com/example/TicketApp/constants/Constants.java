@@ -14,9 +14,31 @@ public class Constants {
     public static final String MESSAGE_REPLY_CREATED = "Reply created successfully";
     public static final String MESSAGE_REPLY_UPDATED = "Reply updated successfully";
     public static final String MESSAGE_REPLY_DELETED = "Reply deleted successfully";
+    public static final String MESSAGE_REPLY_PENDING = "Reply is still being saved, try again shortly";
+    public static final String MESSAGE_REPLY_TOO_LONG = "Reply text must be at most %d characters";
     public static final String MESSAGE_TICKET_CREATED = "Ticket created successfully";
     public static final String MESSAGE_USER_ALREADY_EXISTS = "User with this email already exists";
     public static final String MESSAGE_INVALID_ROLE = "Role must be 'CUSTOMER' or 'AGENT'";
+    public static final String MESSAGE_TOO_MANY_REQUESTS = "Too many requests, please retry later";
+    public static final String MESSAGE_STATUS_UPDATED = "Status changed successfully";
+    public static final String MESSAGE_CUSTOMER_MOVE_STARTED = "Customer move started";
+    public static final String MESSAGE_MOVE_IN_PROGRESS = "A move for this customer is already in progress";
+    public static final String MESSAGE_MOVE_QUEUE_FULL = "Too many shard moves are queued, please retry later";
+    public static final String MESSAGE_MOVE_NOT_FOUND = "Shard move not found";
+    public static final String MESSAGE_ADMIN_ONLY = "Only agents can perform admin operations";
+    public static final String MESSAGE_BULK_LIMIT_EXCEEDED = "At most %d tickets can be updated at once";
+    public static final String MESSAGE_BATCH_LIMIT_EXCEEDED = "At most %d tickets can be fetched at once";
+    public static final String MESSAGE_TICKET_IDS_REQUIRED = "At least one ticket id is required";
+    public static final String MESSAGE_USER_NOT_AUTHORIZED_TICKET = "User is not authorized to view this ticket";
+    public static final String MESSAGE_INVALID_EXPORT_FORMAT = "Format must be 'csv' or 'ndjson'";
+    public static final String MESSAGE_INVALID_EXPORT_RANGE = "'from' must be before 'to'";
+    public static final String MESSAGE_TICKET_CLAIMED = "Ticket claimed successfully";
+    public static final String MESSAGE_QUEUE_EMPTY = "No tickets are waiting";
+    public static final String MESSAGE_QUEUE_UNAVAILABLE = "Work queue is temporarily unavailable";
+    public static final String MESSAGE_SERVICE_BUSY = "Service is busy, please retry shortly";
+    public static final String MESSAGE_CONCURRENT_UPDATE = "The ticket was changed concurrently, please retry";
+    public static final String MESSAGE_IDEMPOTENT_REQUEST_IN_PROGRESS = "A request with this Idempotency-Key is still being processed";
+    public static final String MESSAGE_IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used with a different request";
 
     // HTTP Status Codes (Numeric)
     public static final int HTTP_STATUS_CREATED = 201;
@@ -25,6 +47,13 @@ public class Constants {
     public static final int HTTP_STATUS_NOT_FOUND = 404;
     public static final int HTTP_STATUS_UNAUTHORIZED = 401;
     public static final int HTTP_STATUS_FORBIDDEN = 403;
+    public static final int HTTP_STATUS_TOO_MANY_REQUESTS = 429;
+    public static final int HTTP_STATUS_SERVICE_UNAVAILABLE = 503;
+
+    // Request Headers
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    public static final int IDEMPOTENCY_RETRY_AFTER_SECONDS = 1;
 
     // Roles
     public static final String ROLE_CUSTOMER = "CUSTOMER";
@@ -37,8 +66,21 @@ public class Constants {
     public static final String STATUS_PREBOOKING = "Prebooking";
     public static final String STATUS_POSTBOOKING = "Postbooking";
 
+    // Bulk Status Outcomes
+    public static final String OUTCOME_RESOLVED = "RESOLVED";
+    public static final String OUTCOME_ALREADY_RESOLVED = "ALREADY_RESOLVED";
+    public static final String OUTCOME_NOT_FOUND = "NOT_FOUND";
+    public static final String OUTCOME_FORBIDDEN = "FORBIDDEN";
+    public static final int BULK_UPDATE_MAX_TICKETS = 1000;
+    public static final int BATCH_SEARCH_MAX_TICKETS = 50;
+    public static final int REPLY_TEXT_MAX_LENGTH = 255;  // ticket_responses.response_text
+
     // Cache Settings
     public static final String CACHE_KEY_PREFIX = "ticket_counts::";
+    public static final String LIST_CACHE_KEY_PREFIX = "ticket_list::";
+    public static final String TICKET_DETAILS_CACHE_PREFIX = "ticket_details::";
+    public static final String AGENT_QUEUE_KEY_PREFIX = "agent_queue::";
+    public static final int DEFAULT_PAGE_SIZE = 10;
     public static final long CACHE_TTL = 30; // 30 minutes
 
     // Other Constants
@@ -50,18 +92,23 @@ public class Constants {
     public static final String LOG_TICKET_NOT_FOUND = "Ticket not found with ID: %d";
     public static final String LOG_USER_NOT_FOUND = "User not found with ID: %d";
     public static final String LOG_USER_NOT_AUTHORIZED = "User is not authorized to reply with role: %s";
-    public static final String LOG_ROLE_NOT_AUTHORIZED = "User with ID: %d is not authorized to reply with role: %s";
+    public static final String LOG_USER_NOT_AUTHORIZED_TICKET = "User %d is not authorized to view ticket %d";
+    public static final String LOG_REPLY_ROLE_NOT_AUTHORIZED = "User is not authorized to reply with role: {}";
+    public static final String LOG_ROLE_NOT_AUTHORIZED = "User with ID: {} is not authorized to reply with role: {}";
     public static final String LOG_CUSTOMER_NOT_FOUND = "Customer not found for the ticket.";
     public static final String LOG_AGENT_NOT_FOUND = "Agent not found for the ticket.";
-    public static final String LOG_INVALID_TICKET = "Reply not found for the given response ID.";
+    public static final String LOG_REPLY_NOT_FOUND = "Reply %d not found on ticket %d";
+    public static final String LOG_REPLY_PENDING = "Reply %d on ticket %d is not flushed from the write-behind journal yet";
     public static final String LOG_USER_NOT_AUTHORIZED_UPDATE = "User is not authorized to update this reply.";
     public static final String LOG_USER_NOT_AUTHORIZED_DELETE = "User is not authorized to delete this reply.";
     public static final String LOG_ACCESS_DENIED = "Access denied. Only agents can update the status.";
     public static final String LOG_USER_NOT_AUTHORIZED_STATUS_UPDATE = "User is not authorized to update the status of this ticket.";
     public static final String LOG_ROLE_VALIDATION_FAILED = "Invalid role. Role must be 'AGENT' or 'CUSTOMER'.";
-    public static final String LOG_USER_SIGNUP_ATTEMPT = "Attempting to sign up user with email: %s";
-    public static final String LOG_USER_ALREADY_EXISTS = "User with email %s already exists.";
-    public static final String LOG_USER_CREATED = "User with email %s created successfully.";
-    public static final String LOG_INVALID_ROLE = "Invalid role: %s";
+    public static final String LOG_USER_SIGNUP_ATTEMPT = "Attempting to sign up user with email: {}";
+    public static final String LOG_USER_ALREADY_EXISTS = "User with email {} already exists.";
+    public static final String LOG_USER_CREATED = "User with email {} created successfully.";
+    public static final String LOG_TICKET_CREATE_ATTEMPT = "Creating ticket for userId: {}";
+    public static final String LOG_TICKET_CREATED = "Ticket {} created successfully.";
+    public static final String LOG_INVALID_ROLE = "Invalid role: {}";
 
 }
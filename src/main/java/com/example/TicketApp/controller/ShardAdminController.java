@@ -0,0 +1,109 @@
+package com.example.TicketApp.controller;
+
+import com.example.TicketApp.CustomErrors.UserNotAuthorizedException;
+import com.example.TicketApp.CustomErrors.UserNotFoundException;
+import com.example.TicketApp.DTO.ShardMoveDTO;
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.services.ShardRebalancerService;
+import com.example.TicketApp.services.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/admin/shards")
+@ConditionalOnProperty(name = "ticketapp.sharding.enabled", havingValue = "true")
+public class ShardAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardAdminController.class);
+    private final ShardRebalancerService shardRebalancerService;
+    private final UserService userService;
+
+    public ShardAdminController(ShardRebalancerService shardRebalancerService, UserService userService) {
+        this.shardRebalancerService = shardRebalancerService;
+        this.userService = userService;
+    }
+
+    // Move a customer and all of their tickets to another shard. The move runs in the background;
+    // the 202 response carries the id to poll at /admin/shards/moves/{moveId}.
+    @PostMapping("/customers/{customerId}/move")
+    public ResponseEntity<?> moveCustomer(@PathVariable long customerId, @RequestParam int targetShard,
+                                          @RequestParam long userId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            userService.requireAgent(userId);
+            logger.info("Agent {} moving customer {} to shard {}", userId, customerId, targetShard);
+            ShardMoveDTO move = shardRebalancerService.startMove(customerId, targetShard);
+
+            response.put("status", Constants.STATUS_SUCCESS);
+            response.put("message", Constants.MESSAGE_CUSTOMER_MOVE_STARTED);
+            response.put("data", move);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header("Location", "/admin/shards/moves/" + move.getMoveId())
+                    .body(response);
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (UserNotAuthorizedException e) {
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error moving customer: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (IllegalStateException e) {
+            logger.warn("Customer move not started: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/moves/{moveId}")
+    public ResponseEntity<?> getMove(@PathVariable String moveId, @RequestParam long userId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            userService.requireAgent(userId);
+            Optional<ShardMoveDTO> move = shardRebalancerService.getMove(moveId);
+            if (move.isEmpty()) {
+                response.put("status", Constants.STATUS_ERROR);
+                response.put("message", Constants.MESSAGE_MOVE_NOT_FOUND);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            }
+
+            response.put("status", Constants.STATUS_SUCCESS);
+            response.put("data", move.get());
+            return ResponseEntity.ok(response);
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (UserNotAuthorizedException e) {
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
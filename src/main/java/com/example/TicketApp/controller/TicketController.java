@@ -4,25 +4,32 @@ import com.example.TicketApp.CustomErrors.BookingNotFoundException;
 import com.example.TicketApp.CustomErrors.UserNotAuthorizedException;
 import com.example.TicketApp.CustomErrors.UserNotFoundException;
 import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketChangesDTO;
 import com.example.TicketApp.DTO.TicketDTO;
 import com.example.TicketApp.DTO.TicketRequestDTO;
 import com.example.TicketApp.DTO.TicketResponseDTO;
 import com.example.TicketApp.constants.Constants;
 import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.services.IdempotencyService;
+import com.example.TicketApp.services.RateLimiterService;
 import com.example.TicketApp.services.TicketResponseService;
 import com.example.TicketApp.services.TicketService;
+import com.example.TicketApp.services.TicketSyncService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @RestController
@@ -33,11 +40,19 @@ public class TicketController {
     private static final Logger logger = LoggerFactory.getLogger(TicketController.class);
     private final TicketService ticketService;
     private final TicketResponseService ticketResponseService;
+    private final IdempotencyService idempotencyService;
+    private final TicketSyncService ticketSyncService;
+    private final RateLimiterService rateLimiterService;
 
     // Constructor Injection
-    public TicketController(TicketService ticketService, TicketResponseService ticketResponseService) {
+    public TicketController(TicketService ticketService, TicketResponseService ticketResponseService,
+                            IdempotencyService idempotencyService, TicketSyncService ticketSyncService,
+                            RateLimiterService rateLimiterService) {
         this.ticketService = ticketService;
         this.ticketResponseService = ticketResponseService;
+        this.idempotencyService = idempotencyService;
+        this.ticketSyncService = ticketSyncService;
+        this.rateLimiterService = rateLimiterService;
     }
 
     @GetMapping("/search")
@@ -116,6 +131,74 @@ public class TicketController {
         }
     }
 
+    // Batch version of the endpoint above for inbox views that render many ticket cards at once
+    @GetMapping("/search/{userId}")
+    public ResponseEntity<Map<String, Object>> searchTicketsBatch(
+            @PathVariable long userId,
+            @RequestParam List<Long> ticketIds,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            logger.info("Fetching {} tickets for userId: {}, page: {}, size: {}", ticketIds.size(), userId, page, size);
+
+            List<Map<String, Object>> tickets = ticketService.searchTickets(userId, ticketIds, page, size);
+
+            response.put("status", Constants.STATUS_SUCCESS);
+            response.put("data", tickets);
+
+            return ResponseEntity.ok(response);
+
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid argument: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Delta sync: pass back nextSince/nextSinceId from the previous page; omit them for a full sync
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(
+            @RequestParam long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") long sinceId,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            TicketChangesDTO changes = ticketSyncService.changesSince(userId, since, sinceId, limit);
+
+            response.put("status", Constants.STATUS_SUCCESS);
+            response.put("data", changes);
+
+            return ResponseEntity.ok(response);
+
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
 
     @GetMapping("/{ticket-id}/response")
     public ResponseEntity<?> getAllTicketResponses(@PathVariable("ticket-id") long ticketId,
@@ -142,8 +225,20 @@ public class TicketController {
         }
     }
 
+    // Retries carrying the same Idempotency-Key get the first response back instead of a second ticket
     @PostMapping
-    public ResponseEntity<?> createTicket(@RequestBody TicketRequestDTO request) {
+    public ResponseEntity<?> createTicket(@RequestHeader(value = Constants.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                          @RequestBody TicketRequestDTO request,
+                                          HttpServletRequest httpRequest) {
+        ResponseEntity<Map<String, Object>> rateLimited = WriteRateLimit.check(rateLimiterService, request.getUserId(), httpRequest);
+        if (rateLimited != null) {
+            return rateLimited;
+        }
+        return idempotencyService.execute("ticket::" + request.getUserId(), idempotencyKey, request,
+                () -> createTicket(request));
+    }
+
+    private ResponseEntity<Map<String, Object>> createTicket(TicketRequestDTO request) {
         Map<String, Object> response = new HashMap<>();
         try {
             logger.info("Creating ticket for userId: {} with bookingId: {}", request.getUserId(), request.getBookingId());
@@ -0,0 +1,119 @@
+package com.example.TicketApp.controller;
+
+import com.example.TicketApp.CustomErrors.UserNotAuthorizedException;
+import com.example.TicketApp.CustomErrors.UserNotFoundException;
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.services.TicketExportService;
+import com.example.TicketApp.services.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/admin/tickets")
+public class TicketExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketExportController.class);
+    private final TicketExportService ticketExportService;
+    private final UserService userService;
+
+    public TicketExportController(TicketExportService ticketExportService, UserService userService) {
+        this.ticketExportService = ticketExportService;
+        this.userService = userService;
+    }
+
+    // Streams tickets created from `from` (inclusive) to `to` (exclusive) straight into the response.
+    // Errors found before the first byte get the usual JSON error body; a failure mid-stream aborts
+    // the connection so a truncated export is never mistaken for a complete one.
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTickets(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean includeReplies,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam long userId,
+            HttpServletResponse httpResponse) {
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            // Exports cover every customer's tickets, so only agents may run them
+            userService.requireAgent(userId);
+            TicketExportService.Format exportFormat = parseFormat(format);
+            if (!from.isBefore(to)) {
+                throw new IllegalArgumentException(Constants.MESSAGE_INVALID_EXPORT_RANGE);
+            }
+            logger.info("Agent {} exporting tickets from {} to {} as {}, replies: {}, gzip: {}",
+                    userId, from, to, exportFormat, includeReplies, gzip);
+
+            String fileName = "tickets-" + from + "-" + to + (exportFormat == TicketExportService.Format.CSV ? ".csv" : ".ndjson");
+            httpResponse.setStatus(HttpStatus.OK.value());
+            httpResponse.setCharacterEncoding("UTF-8");
+            if (gzip) {
+                httpResponse.setContentType("application/gzip");
+                fileName += ".gz";
+            } else {
+                httpResponse.setContentType(exportFormat == TicketExportService.Format.CSV ? "text/csv" : "application/x-ndjson");
+            }
+            httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+            OutputStream out = httpResponse.getOutputStream();
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                ticketExportService.export(from.atStartOfDay(), to.atStartOfDay(), exportFormat, includeReplies, gzipOut);
+                gzipOut.finish();
+            } else {
+                ticketExportService.export(from.atStartOfDay(), to.atStartOfDay(), exportFormat, includeReplies, out);
+            }
+            out.flush();
+            // The body has been written directly
+            return null;
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            httpResponse.reset();
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (UserNotAuthorizedException e) {
+            httpResponse.reset();
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error exporting tickets: {}", e.getMessage());
+            httpResponse.reset();
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            logger.error("Ticket export failed: {}", e.getMessage());
+            if (httpResponse.isCommitted()) {
+                throw new IllegalStateException("Ticket export aborted", e);
+            }
+            httpResponse.reset();
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private TicketExportService.Format parseFormat(String format) {
+        try {
+            return TicketExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(Constants.MESSAGE_INVALID_EXPORT_FORMAT);
+        }
+    }
+}
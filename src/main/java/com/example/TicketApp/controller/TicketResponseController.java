@@ -1,16 +1,28 @@
 package com.example.TicketApp.controller;
 
+import com.example.TicketApp.CustomErrors.BookingNotFoundException;
+import com.example.TicketApp.CustomErrors.ReplyPendingException;
+import com.example.TicketApp.CustomErrors.UserNotAuthorizedException;
+import com.example.TicketApp.CustomErrors.UserNotFoundException;
+import com.example.TicketApp.DTO.BulkStatusUpdateRequestDTO;
+import com.example.TicketApp.DTO.BulkStatusUpdateResultDTO;
 import com.example.TicketApp.DTO.TicketResponseDTO;
 import com.example.TicketApp.constants.Constants;
-import com.example.TicketApp.entity.TicketResponse;
+import com.example.TicketApp.services.AgentWorkQueueService;
+import com.example.TicketApp.services.IdempotencyService;
+import com.example.TicketApp.services.RateLimiterService;
 import com.example.TicketApp.services.TicketResponseService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -26,18 +38,35 @@ public class TicketResponseController {
 
     private static final Logger logger = LoggerFactory.getLogger(TicketResponseController.class);
     private final TicketResponseService ticketResponseService;
+    private final IdempotencyService idempotencyService;
+    private final RateLimiterService rateLimiterService;
 
     // Constructor Injection
-    public TicketResponseController(TicketResponseService ticketResponseService) {
+    public TicketResponseController(TicketResponseService ticketResponseService, IdempotencyService idempotencyService,
+                                    RateLimiterService rateLimiterService) {
         this.ticketResponseService = ticketResponseService;
+        this.idempotencyService = idempotencyService;
+        this.rateLimiterService = rateLimiterService;
     }
 
-    // Endpoint to create a new reply (ticket response)
+    // Endpoint to create a new reply (ticket response); retries carrying the same Idempotency-Key get the first reply back
     @PostMapping("/{ticket-id}")
     public ResponseEntity<Map<String, Object>> createTicketResponse(
             @PathVariable("ticket-id") long ticketId,
-            @RequestBody Map<String, Object> requestBody) {
+            @RequestHeader(value = Constants.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody Map<String, Object> requestBody,
+            HttpServletRequest httpRequest) {
 
+        ResponseEntity<Map<String, Object>> rateLimited = WriteRateLimit.check(rateLimiterService, requestBody.get("user_id"), httpRequest);
+        if (rateLimited != null) {
+            return rateLimited;
+        }
+        String scope = "ticket-response::" + ticketId + "::" + requestBody.get("user_id");
+        return idempotencyService.execute(scope, idempotencyKey, requestBody,
+                () -> createTicketResponse(ticketId, requestBody));
+    }
+
+    private ResponseEntity<Map<String, Object>> createTicketResponse(long ticketId, Map<String, Object> requestBody) {
         Map<String, Object> response = new HashMap<>();
         try {
             logger.info("Creating ticket response for ticketId: {}", ticketId);
@@ -62,6 +91,11 @@ public class TicketResponseController {
             response.put("status", Constants.STATUS_ERROR);
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (OptimisticLockingFailureException e) {
+            logger.error("Concurrent update conflict: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_CONCURRENT_UPDATE);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);  // 409 Conflict
         } catch (Exception e) {
             logger.error("Internal server error: {}", e.getMessage());
             response.put("status", Constants.STATUS_ERROR);
@@ -85,7 +119,7 @@ public class TicketResponseController {
             }
 
             // Update ticket response
-            TicketResponse updatedReply = ticketResponseService.updateTicketResponse(userId, ticketId, responseId, updatedText);
+            ticketResponseService.updateTicketResponse(userId, ticketId, responseId, updatedText);
 
             response.put("status", Constants.STATUS_SUCCESS);
             response.put("message", Constants.MESSAGE_REPLY_UPDATED);
@@ -95,6 +129,21 @@ public class TicketResponseController {
             response.put("status", Constants.STATUS_ERROR);
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (BookingNotFoundException e) {
+            logger.error("Reply not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);  // 404 Not Found
+        } catch (UserNotAuthorizedException e) {
+            logger.error("Unauthorized reply change: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (ReplyPendingException e) {
+            logger.warn("Reply change deferred: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_REPLY_PENDING);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);  // 503 Service Unavailable
         } catch (Exception e) {
             logger.error("Internal server error: {}", e.getMessage());
             response.put("status", Constants.STATUS_ERROR);
@@ -123,6 +172,21 @@ public class TicketResponseController {
             response.put("status", Constants.STATUS_ERROR);
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (BookingNotFoundException e) {
+            logger.error("Reply not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);  // 404 Not Found
+        } catch (UserNotAuthorizedException e) {
+            logger.error("Unauthorized reply change: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (ReplyPendingException e) {
+            logger.warn("Reply change deferred: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_REPLY_PENDING);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);  // 503 Service Unavailable
         } catch (Exception e) {
             logger.error("Internal server error: {}", e.getMessage());
             response.put("status", Constants.STATUS_ERROR);
@@ -154,6 +218,98 @@ public class TicketResponseController {
             response.put("status", Constants.STATUS_ERROR);
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (OptimisticLockingFailureException e) {
+            logger.error("Concurrent update conflict: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_CONCURRENT_UPDATE);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);  // 409 Conflict
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);  // 500 Internal Server Error
+        }
+    }
+
+    // Claim the next ticket from the agent's priority queue
+    @PostMapping("/queue/claim")
+    public ResponseEntity<?> claimNextTicket(@RequestParam long userId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            logger.info("Claiming next ticket for agent userId: {}", userId);
+
+            AgentWorkQueueService.ClaimedTicket claimed = ticketResponseService.claimNextTicket(userId);
+            response.put("status", Constants.STATUS_SUCCESS);
+            if (claimed == null) {
+                response.put("message", Constants.MESSAGE_QUEUE_EMPTY);
+                response.put("data", null);
+            } else {
+                Map<String, Object> data = new HashMap<>();
+                data.put("ticketId", claimed.ticketId());
+                data.put("remaining", claimed.remaining());
+                response.put("message", Constants.MESSAGE_TICKET_CLAIMED);
+                response.put("data", data);
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(response);
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_USER_NOT_FOUND);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);  // 404 Not Found
+        } catch (UserNotAuthorizedException e) {
+            logger.error("Unauthorized claim: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (DataAccessException e) {
+            logger.error("Work queue unavailable: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_QUEUE_UNAVAILABLE);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);  // 503 Service Unavailable
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", Constants.MESSAGE_INTERNAL_SERVER_ERROR);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);  // 500 Internal Server Error
+        }
+    }
+
+    // Resolve many tickets at once (for agents), by explicit ids or by filter
+    @PutMapping("/update-status")
+    public ResponseEntity<?> bulkUpdateTicketStatus(@RequestParam long userId,
+                                                    @RequestBody BulkStatusUpdateRequestDTO request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            logger.info("Bulk updating ticket status for agent userId: {}", userId);
+
+            List<BulkStatusUpdateResultDTO> results = ticketResponseService.bulkUpdateTicketStatus(userId, request);
+            long updated = results.stream()
+                    .filter(result -> Constants.OUTCOME_RESOLVED.equals(result.getOutcome()))
+                    .count();
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("updated", updated);
+            data.put("results", results);
+
+            response.put("status", Constants.STATUS_SUCCESS);
+            response.put("message", Constants.MESSAGE_STATUS_UPDATED);
+            response.put("data", data);
+            return ResponseEntity.status(HttpStatus.OK).body(response);
+        } catch (UserNotFoundException e) {
+            logger.error("User not found: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);  // 404 Not Found
+        } catch (UserNotAuthorizedException e) {
+            logger.error("Unauthorized access: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);  // 403 Forbidden
+        } catch (IllegalArgumentException e) {
+            logger.error("Error bulk updating ticket status: {}", e.getMessage());
+            response.put("status", Constants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);  // 400 Bad Request
         } catch (Exception e) {
             logger.error("Internal server error: {}", e.getMessage());
             response.put("status", Constants.STATUS_ERROR);
@@ -4,6 +4,7 @@ import com.example.TicketApp.DTO.UserSignRequestDTO;
 import com.example.TicketApp.constants.Constants;
 import com.example.TicketApp.entity.User;
 import com.example.TicketApp.repository.UserRespository;
+import com.example.TicketApp.services.TicketCachePrewarmService;
 import com.example.TicketApp.services.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,10 +21,13 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
     private final UserRespository userRespository;
+    private final TicketCachePrewarmService ticketCachePrewarmService;
 
-    public UserController(UserService userService, UserRespository userRespository) {
+    public UserController(UserService userService, UserRespository userRespository,
+                          TicketCachePrewarmService ticketCachePrewarmService) {
         this.userService = userService;
         this.userRespository = userRespository;
+        this.ticketCachePrewarmService = ticketCachePrewarmService;
     }
 
     @PostMapping("/signup")
@@ -78,6 +82,9 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
             }
 
+            // Warm the dashboard caches in the background; does not delay this response
+            ticketCachePrewarmService.prewarmAsync(user.getUserId(), user.getRole().name());
+
             response.put("status", Constants.STATUS_SUCCESS);
             response.put("message", Constants.MESSAGE_LOGIN_SUCCESSFUL);
 
@@ -0,0 +1,46 @@
+package com.example.TicketApp.controller;
+
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.services.RateLimiterService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Rate limit for the user-facing write endpoints. Requests act as the user id in their body, which
+// is the identity every service check authorizes against, so that id keys the bucket; a request
+// without a usable id is limited by client IP like the anonymous endpoints.
+final class WriteRateLimit {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteRateLimit.class);
+
+    private WriteRateLimit() {
+    }
+
+    // Returns the 429 response to send, or null when the request is admitted
+    static ResponseEntity<Map<String, Object>> check(RateLimiterService rateLimiterService, Object userId,
+                                                      HttpServletRequest request) {
+        String key;
+        try {
+            key = RateLimiterService.userKey(Long.parseLong(String.valueOf(userId)));
+        } catch (NumberFormatException e) {
+            key = RateLimiterService.ipKey(request.getRemoteAddr());
+        }
+        long waitMillis = rateLimiterService.tryAcquire(key);
+        if (waitMillis == 0) {
+            return null;
+        }
+
+        logger.warn("Rate limit exceeded for {} on {}", key, request.getRequestURI());
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", Constants.STATUS_ERROR);
+        response.put("message", Constants.MESSAGE_TOO_MANY_REQUESTS);
+        return ResponseEntity.status(Constants.HTTP_STATUS_TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, (waitMillis + 999) / 1000)))
+                .body(response);
+    }
+}
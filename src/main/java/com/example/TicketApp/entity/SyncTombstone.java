@@ -0,0 +1,40 @@
+package com.example.TicketApp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Tells one user's delta sync that something they had synced is gone: a deleted reply, or a
+// ticket that was reassigned away from them. Pruned after the sync retention period.
+@Entity
+@Table(name = "sync_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTombstone {
+
+    public static final String ENTITY_REPLY = "REPLY";
+    public static final String ENTITY_TICKET = "TICKET";
+
+    @Id
+    @TimeOrderedId
+    private Long tombstoneId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
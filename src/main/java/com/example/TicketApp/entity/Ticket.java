@@ -25,7 +25,7 @@ import java.util.List;
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long ticketId;
 
     @ManyToOne
@@ -61,6 +61,13 @@ public class Ticket {
 
     private LocalDateTime resolvedAt;
 
+    // Set once the ticket breached its SLA and was reassigned
+    private LocalDateTime escalatedAt;
+
+    // Optimistic lock; concurrent writers get an OptimisticLockingFailureException instead of overwriting each other
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference  // Proper serialization for ticket responses
     private List<TicketResponse> responses = new ArrayList<>();
@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
 @JsonIgnoreProperties({"ticket", "user"})  // Ignore unnecessary fields during serialization
 public class TicketResponse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long responseId;
 
     @ManyToOne
@@ -45,4 +45,8 @@ public class TicketResponse {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; concurrent writers get an OptimisticLockingFailureException instead of overwriting each other
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,89 @@
+package com.example.TicketApp.entity;
+
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Denormalized read model for list and count views, kept in sync with Ticket on every write
+@Entity
+@Table(name = "ticket_summary", indexes = {
+        @Index(name = "idx_ticket_summary_agent_status_created", columnList = "agent_id, status, created_at"),
+        @Index(name = "idx_ticket_summary_customer_status_created", columnList = "customer_id, status, created_at")
+})
+@Data
+@NoArgsConstructor
+public class TicketSummary implements Persistable<Long> {
+
+    @Id
+    private Long ticketId;  // Same id as the ticket it mirrors
+
+    @Column(nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    private String customerEmail;
+
+    private Long agentId;
+
+    private String agentEmail;
+
+    // The id is assigned, so without this save() would merge and SELECT the row first.
+    // A summary built in code is always a new row; loaded or saved ones are not.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    public TicketSummary(Long ticketId, String description, Status status, Category category, LocalDateTime createdAt,
+                         Long customerId, String customerEmail, Long agentId, String agentEmail) {
+        this.ticketId = ticketId;
+        this.description = description;
+        this.status = status;
+        this.category = category;
+        this.createdAt = createdAt;
+        this.customerId = customerId;
+        this.customerEmail = customerEmail;
+        this.agentId = agentId;
+        this.agentEmail = agentEmail;
+    }
+
+    @Override
+    public Long getId() {
+        return ticketId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
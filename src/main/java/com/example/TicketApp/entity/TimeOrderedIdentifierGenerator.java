@@ -0,0 +1,17 @@
+package com.example.TicketApp.entity;
+
+import com.example.TicketApp.services.ShardContext;
+import com.example.TicketApp.services.TimeOrderedIdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+// Hibernate hook for @TimeOrderedId. The id carries the shard the row is written to,
+// so it is known before the insert and inserts can be batched.
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        Integer shard = ShardContext.get();
+        return TimeOrderedIdGenerator.shared().nextId(shard != null ? shard : 0);
+    }
+}
@@ -5,7 +5,11 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.*;
@@ -20,12 +24,15 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @JsonIgnoreProperties({"agents", "customers"})  // Ignoring unnecessary fields during serialization
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")  // Collections are left uncached
+@NaturalIdCache(region = "users-by-email")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long userId;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -0,0 +1,26 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("SELECT s FROM SyncTombstone s WHERE s.userId = :userId " +
+            "AND (s.deletedAt > :since OR (s.deletedAt = :since AND s.tombstoneId > :sinceId)) AND s.deletedAt < :until " +
+            "ORDER BY s.deletedAt, s.tombstoneId")
+    List<SyncTombstone> findChanges(@Param("userId") long userId, @Param("since") LocalDateTime since,
+                                    @Param("sinceId") long sinceId, @Param("until") LocalDateTime until, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone s WHERE s.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,16 +1,22 @@
 package com.example.TicketApp.repository;
 
+import com.example.TicketApp.DTO.SyncTicketDTO;
+import com.example.TicketApp.DTO.TicketDeadlineDTO;
+import com.example.TicketApp.DTO.TicketIndexRowDTO;
+import com.example.TicketApp.DTO.TicketOwnershipDTO;
+import com.example.TicketApp.DTO.TicketSnapshotDTO;
 import com.example.TicketApp.entity.Ticket;
 import com.example.TicketApp.entity.User;
-import com.example.TicketApp.enums.Role;
+import com.example.TicketApp.enums.Category;
 import com.example.TicketApp.enums.Status;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,18 +25,111 @@ public interface TicketRepository extends JpaRepository<Ticket,Long> {
 
      Optional<Ticket> findById(long ticketId);
 
-          @Query("SELECT t FROM Ticket t " +
-                  "WHERE (:userId IS NULL OR t.customer.userId = :userId OR t.agent.userId = :userId) " +
-                  "AND (:role IS NULL OR t.customer.role = :role OR t.agent.role = :role) " +
-                  "AND (:status IS NULL OR t.status = :status)")
-          Page<Ticket> findByUserIdAndRoleAndStatus(
-                  @Param("userId") Long userId,
-                  @Param("role") Role role,
+     @Query("SELECT new com.example.TicketApp.DTO.TicketOwnershipDTO(t.ticketId, c.userId, a.userId, t.status) " +
+             "FROM Ticket t JOIN t.customer c LEFT JOIN t.agent a " +
+             "WHERE t.ticketId IN :ticketIds")
+     List<TicketOwnershipDTO> findOwnershipByTicketIds(@Param("ticketIds") List<Long> ticketIds);
+
+     @Query("SELECT new com.example.TicketApp.DTO.TicketSnapshotDTO(t.ticketId, t.status, t.category, t.createdAt, " +
+             "t.description, c.userId, c.email, a.userId, a.email) " +
+             "FROM Ticket t JOIN t.customer c LEFT JOIN t.agent a " +
+             "WHERE t.ticketId IN :ticketIds")
+     List<TicketSnapshotDTO> findSnapshotsByTicketIds(@Param("ticketIds") List<Long> ticketIds);
+
+     @Query("SELECT t.ticketId FROM Ticket t " +
+             "WHERE t.agent.userId = :agentId AND t.status = :status " +
+             "AND (:category IS NULL OR t.category = :category) " +
+             "AND t.createdAt < :createdBefore")
+     List<Long> findTicketIdsForAgent(@Param("agentId") long agentId,
+                                      @Param("status") Status status,
+                                      @Param("category") Category category,
+                                      @Param("createdBefore") LocalDateTime createdBefore);
+
+     // Tickets whose SLA timer is still running, for the timing wheel's startup load
+     @Query("SELECT new com.example.TicketApp.DTO.TicketDeadlineDTO(t.ticketId, t.category, t.createdAt) " +
+             "FROM Ticket t WHERE t.status = :status AND t.escalatedAt IS NULL")
+     List<TicketDeadlineDTO> findSlaPending(@Param("status") Status status);
+
+     // Pending tickets of one category whose SLA has already run out; served by idx_tickets_sla_pending
+     @Query("SELECT t.ticketId FROM Ticket t WHERE t.status = :status AND t.escalatedAt IS NULL " +
+             "AND t.category = :category AND t.createdAt < :createdBefore")
+     List<Long> findSlaOverdue(@Param("status") Status status,
+                               @Param("category") Category category,
+                               @Param("createdBefore") LocalDateTime createdBefore);
+
+     // Every ticket on the shard, narrowed to the columns the in-memory bitmap index is built from
+     @Query("SELECT new com.example.TicketApp.DTO.TicketIndexRowDTO(t.ticketId, t.customer.userId, a.userId, " +
+             "t.status, t.category, t.createdAt) FROM Ticket t LEFT JOIN t.agent a")
+     List<TicketIndexRowDTO> findIndexRows();
+
+     // Index rows touched at or after `since`, to catch a restored index snapshot up with the shard
+     @Query("SELECT new com.example.TicketApp.DTO.TicketIndexRowDTO(t.ticketId, t.customer.userId, a.userId, " +
+             "t.status, t.category, t.createdAt) FROM Ticket t LEFT JOIN t.agent a WHERE t.updatedAt >= :since")
+     List<TicketIndexRowDTO> findIndexRowsUpdatedSince(@Param("since") LocalDateTime since);
+
+     // Newest write on the shard; the generation stamp an index snapshot is validated against
+     @Query("SELECT MAX(t.updatedAt) FROM Ticket t")
+     LocalDateTime findMaxUpdatedAt();
+
+     // Flags and reassigns in one guarded statement; 0 rows means the ticket was resolved,
+     // already escalated, or handed to someone else in the meantime
+     @Modifying
+     @Query("UPDATE Ticket t SET t.agent = :newAgent, t.escalatedAt = :now, t.updatedAt = :now, t.version = t.version + 1 " +
+             "WHERE t.ticketId = :ticketId AND t.status = :status AND t.escalatedAt IS NULL " +
+             "AND t.agent.userId = :currentAgentId")
+     int escalate(@Param("ticketId") long ticketId,
+                  @Param("currentAgentId") long currentAgentId,
+                  @Param("newAgent") User newAgent,
                   @Param("status") Status status,
-                  Pageable pageable);
+                  @Param("now") LocalDateTime now);
+
+     // The same for a ticket that has no agent at all
+     @Modifying
+     @Query("UPDATE Ticket t SET t.agent = :newAgent, t.escalatedAt = :now, t.updatedAt = :now, t.version = t.version + 1 " +
+             "WHERE t.ticketId = :ticketId AND t.status = :status AND t.escalatedAt IS NULL AND t.agent IS NULL")
+     int escalateUnassigned(@Param("ticketId") long ticketId,
+                            @Param("newAgent") User newAgent,
+                            @Param("status") Status status,
+                            @Param("now") LocalDateTime now);
+
+     // Set-based status change, scoped to the owning agent so foreign tickets are never touched.
+     // Bumps the version so concurrent entity updates of the same tickets fail their optimistic check.
+     @Modifying
+     @Query("UPDATE Ticket t SET t.status = :status, t.resolvedAt = :now, t.updatedAt = :now, t.version = t.version + 1 " +
+             "WHERE t.agent.userId = :agentId AND t.status <> :status AND t.ticketId IN :ticketIds")
+     int updateStatusForAgent(@Param("agentId") long agentId,
+                              @Param("ticketIds") List<Long> ticketIds,
+                              @Param("status") Status status,
+                              @Param("now") LocalDateTime now);
+
+     // The tickets of `ticketIds` that the updateStatusForAgent call stamped with `now` actually
+     // changed, read back in the same transaction while their row locks are still held
+     @Query("SELECT new com.example.TicketApp.DTO.TicketOwnershipDTO(t.ticketId, t.customer.userId, t.agent.userId, t.status) " +
+             "FROM Ticket t WHERE t.ticketId IN :ticketIds AND t.agent.userId = :agentId " +
+             "AND t.status = :status AND t.resolvedAt = :now")
+     List<TicketOwnershipDTO> findUpdatedByAgentAt(@Param("agentId") long agentId,
+                                                   @Param("ticketIds") List<Long> ticketIds,
+                                                   @Param("status") Status status,
+                                                   @Param("now") LocalDateTime now);
+
+     // Delta sync: the user's tickets changed after the (updatedAt, ticketId) cursor and before `until`
+     @Query("SELECT new com.example.TicketApp.DTO.SyncTicketDTO(t.ticketId, t.status, t.category, t.description, " +
+             "t.customer.userId, a.userId, t.createdAt, t.updatedAt, t.resolvedAt, t.escalatedAt) " +
+             "FROM Ticket t LEFT JOIN t.agent a " +
+             "WHERE t.customer.userId = :userId " +
+             "AND (t.updatedAt > :since OR (t.updatedAt = :since AND t.ticketId > :sinceId)) AND t.updatedAt < :until " +
+             "ORDER BY t.updatedAt, t.ticketId")
+     List<SyncTicketDTO> findCustomerChanges(@Param("userId") long userId, @Param("since") LocalDateTime since,
+                                             @Param("sinceId") long sinceId, @Param("until") LocalDateTime until,
+                                             Pageable pageable);
 
-     @Query("SELECT t FROM Ticket t " +
-             "WHERE (:userId IS NULL OR t.customer.userId = :userId OR t.agent.userId = :userId) " +
-             "AND (:role IS NULL OR t.customer.role = :role OR t.agent.role = :role)")
-     Page<Ticket> findAllTicketsWithoutStatus(long userId, Role role, Pageable pageable);
+     @Query("SELECT new com.example.TicketApp.DTO.SyncTicketDTO(t.ticketId, t.status, t.category, t.description, " +
+             "t.customer.userId, t.agent.userId, t.createdAt, t.updatedAt, t.resolvedAt, t.escalatedAt) " +
+             "FROM Ticket t " +
+             "WHERE t.agent.userId = :userId " +
+             "AND (t.updatedAt > :since OR (t.updatedAt = :since AND t.ticketId > :sinceId)) AND t.updatedAt < :until " +
+             "ORDER BY t.updatedAt, t.ticketId")
+     List<SyncTicketDTO> findAgentChanges(@Param("userId") long userId, @Param("since") LocalDateTime since,
+                                          @Param("sinceId") long sinceId, @Param("until") LocalDateTime until,
+                                          Pageable pageable);
 }
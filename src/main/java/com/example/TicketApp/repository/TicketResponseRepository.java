@@ -1,5 +1,6 @@
 package com.example.TicketApp.repository;
 
+import com.example.TicketApp.DTO.SyncReplyDTO;
 import com.example.TicketApp.entity.Ticket;
 import com.example.TicketApp.entity.TicketResponse;
 import com.example.TicketApp.entity.User;
@@ -7,10 +8,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +25,78 @@ public interface TicketResponseRepository extends JpaRepository<TicketResponse,L
     @Query("SELECT tr FROM TicketResponse tr WHERE tr.ticket.id = :ticketId")
     Page<TicketResponse> findByTicketId(Long ticketId, Pageable pageable);
 
+    // The same reply page for many tickets in one statement.
+    // Each row is [response_id, ticket_id, response_text, role, created_at]
+    @Query(value = "SELECT r.response_id, r.ticket_id, r.response_text, r.role, r.created_at " +
+            "FROM (SELECT tr.response_id, tr.ticket_id, tr.response_text, tr.role, tr.created_at, " +
+            "row_number() OVER (PARTITION BY tr.ticket_id ORDER BY tr.response_id) AS rn " +
+            "FROM ticket_responses tr WHERE tr.ticket_id IN (:ticketIds)) r " +
+            "WHERE r.rn > :offset AND r.rn <= :offset + :size " +
+            "ORDER BY r.ticket_id, r.rn",
+            nativeQuery = true)
+    List<Object[]> findResponsePagesByTicketIds(@Param("ticketIds") List<Long> ticketIds,
+                                                @Param("offset") int offset,
+                                                @Param("size") int size);
+
+    // Reply totals for the batch search, independent of which page was asked for.
+    // Each row is [ticket_id, count]; tickets without replies are absent.
+    @Query(value = "SELECT tr.ticket_id, count(*) FROM ticket_responses tr " +
+            "WHERE tr.ticket_id IN (:ticketIds) GROUP BY tr.ticket_id",
+            nativeQuery = true)
+    List<Object[]> countResponsesByTicketIds(@Param("ticketIds") List<Long> ticketIds);
+
+    // The ids of these replies that are stored; lets readers tell journaled replies that were flushed meanwhile
+    @Query(value = "SELECT tr.response_id FROM ticket_responses tr WHERE tr.response_id IN (:responseIds)",
+            nativeQuery = true)
+    List<Long> findStoredResponseIds(@Param("responseIds") List<Long> responseIds);
+
+    // Ownership-guarded edit: touches the row only when it belongs to this ticket and was written by this user
+    @Modifying
+    @Query("UPDATE TicketResponse tr SET tr.responseText = :responseText, tr.updatedAt = :now, tr.version = tr.version + 1 " +
+            "WHERE tr.responseId = :responseId AND tr.ticket.ticketId = :ticketId AND tr.user.userId = :userId")
+    int updateTextIfAuthor(@Param("responseId") long responseId, @Param("ticketId") long ticketId,
+                           @Param("userId") long userId, @Param("responseText") String responseText,
+                           @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM TicketResponse tr " +
+            "WHERE tr.responseId = :responseId AND tr.ticket.ticketId = :ticketId AND tr.user.userId = :userId")
+    int deleteIfAuthor(@Param("responseId") long responseId, @Param("ticketId") long ticketId,
+                       @Param("userId") long userId);
+
+    // Only consulted after a guarded statement matched nothing, to tell 404 from 403
+    @Query("SELECT COUNT(tr) > 0 FROM TicketResponse tr WHERE tr.responseId = :responseId AND tr.ticket.ticketId = :ticketId")
+    boolean existsOnTicket(@Param("responseId") long responseId, @Param("ticketId") long ticketId);
+
+    // Delta sync: replies on the customer's tickets changed after the (updatedAt, responseId) cursor and
+    // before `until`. Driven from the user's tickets, then idx_ticket_responses_ticket_updated per ticket.
+    @Query("SELECT new com.example.TicketApp.DTO.SyncReplyDTO(tr.responseId, t.ticketId, tr.user.userId, tr.role, " +
+            "tr.responseText, tr.createdAt, tr.updatedAt) " +
+            "FROM TicketResponse tr JOIN tr.ticket t " +
+            "WHERE t.customer.userId = :userId " +
+            "AND (tr.updatedAt > :since OR (tr.updatedAt = :since AND tr.responseId > :sinceId)) AND tr.updatedAt < :until " +
+            "ORDER BY tr.updatedAt, tr.responseId")
+    List<SyncReplyDTO> findCustomerChanges(@Param("userId") long userId, @Param("since") LocalDateTime since,
+                                           @Param("sinceId") long sinceId, @Param("until") LocalDateTime until,
+                                           Pageable pageable);
+
+    @Query("SELECT new com.example.TicketApp.DTO.SyncReplyDTO(tr.responseId, t.ticketId, tr.user.userId, tr.role, " +
+            "tr.responseText, tr.createdAt, tr.updatedAt) " +
+            "FROM TicketResponse tr JOIN tr.ticket t " +
+            "WHERE t.agent.userId = :userId " +
+            "AND (tr.updatedAt > :since OR (tr.updatedAt = :since AND tr.responseId > :sinceId)) AND tr.updatedAt < :until " +
+            "ORDER BY tr.updatedAt, tr.responseId")
+    List<SyncReplyDTO> findAgentChanges(@Param("userId") long userId, @Param("since") LocalDateTime since,
+                                        @Param("sinceId") long sinceId, @Param("until") LocalDateTime until,
+                                        Pageable pageable);
+
+    // Delta sync: the replies at or before the cursor, for tickets the caller has only just been given
+    @Query("SELECT new com.example.TicketApp.DTO.SyncReplyDTO(tr.responseId, t.ticketId, tr.user.userId, tr.role, " +
+            "tr.responseText, tr.createdAt, tr.updatedAt) " +
+            "FROM TicketResponse tr JOIN tr.ticket t " +
+            "WHERE t.ticketId IN :ticketIds " +
+            "AND (tr.updatedAt < :since OR (tr.updatedAt = :since AND tr.responseId <= :sinceId)) " +
+            "ORDER BY tr.updatedAt, tr.responseId")
+    List<SyncReplyDTO> findHistoryBefore(@Param("ticketIds") List<Long> ticketIds, @Param("since") LocalDateTime since,
+                                         @Param("sinceId") long sinceId);
 }
@@ -0,0 +1,64 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.TicketSummary;
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketSummaryRepository extends JpaRepository<TicketSummary, Long> {
+
+    Page<TicketSummary> findByCustomerIdAndStatus(Long customerId, Status status, Pageable pageable);
+
+    Page<TicketSummary> findByCustomerId(Long customerId, Pageable pageable);
+
+    Page<TicketSummary> findByAgentIdAndStatus(Long agentId, Status status, Pageable pageable);
+
+    Page<TicketSummary> findByAgentId(Long agentId, Pageable pageable);
+
+    // Each row is [Status, Long count]
+    @Query("SELECT s.status, COUNT(s) FROM TicketSummary s " +
+            "WHERE s.customerId = :customerId AND (:category IS NULL OR s.category = :category) " +
+            "GROUP BY s.status")
+    List<Object[]> countByCustomerGroupByStatus(@Param("customerId") Long customerId, @Param("category") Category category);
+
+    @Query("SELECT s.status, COUNT(s) FROM TicketSummary s " +
+            "WHERE s.agentId = :agentId AND (:category IS NULL OR s.category = :category) " +
+            "GROUP BY s.status")
+    List<Object[]> countByAgentGroupByStatus(@Param("agentId") Long agentId, @Param("category") Category category);
+
+    @Modifying
+    @Query("UPDATE TicketSummary s SET s.status = :status WHERE s.ticketId IN :ticketIds")
+    int updateStatus(@Param("ticketIds") Collection<Long> ticketIds, @Param("status") Status status);
+
+    @Modifying
+    @Query("UPDATE TicketSummary s SET s.agentId = :agentId, s.agentEmail = :agentEmail WHERE s.ticketId = :ticketId")
+    int updateAgent(@Param("ticketId") long ticketId, @Param("agentId") Long agentId, @Param("agentEmail") String agentEmail);
+
+    // Fills rows for tickets written before the read model existed (or while it was out of sync)
+    @Modifying
+    @Query(value = "INSERT INTO ticket_summary (ticket_id, description, status, category, created_at, " +
+            "customer_id, customer_email, agent_id, agent_email) " +
+            "SELECT t.ticket_id, t.description, t.status, t.category, t.created_at, " +
+            "t.customer_id, c.email, t.agent_id, a.email " +
+            "FROM tickets t JOIN users c ON c.user_id = t.customer_id " +
+            "LEFT JOIN users a ON a.user_id = t.agent_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM ticket_summary s WHERE s.ticket_id = t.ticket_id)",
+            nativeQuery = true)
+    int insertMissingSummaries();
+
+    @Modifying
+    @Query(value = "UPDATE ticket_summary s SET status = t.status " +
+            "FROM tickets t WHERE t.ticket_id = s.ticket_id AND s.status <> t.status",
+            nativeQuery = true)
+    int repairStatuses();
+}
@@ -3,14 +3,30 @@ package com.example.TicketApp.repository;
 import com.example.TicketApp.entity.User;
 import com.example.TicketApp.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRespository extends JpaRepository<User,Long> {
-    Optional<User> findByEmail(String email);
+public interface UserRespository extends JpaRepository<User,Long>, UserRespositoryCustom {
     List<User> findByRole(Role role);
     Optional<User> findById(long userId);
+
+    // One random agent other than `excludedId`; the database picks it, so no agent list is loaded
+    @Query(value = "SELECT * FROM users WHERE role = 'AGENT' AND user_id <> :excludedId ORDER BY random() LIMIT 1",
+            nativeQuery = true)
+    Optional<User> findRandomAgentExcept(@Param("excludedId") long excludedId);
+
+    // Copies a user created on shard 0 to another shard under the same id
+    @Modifying
+    @Query(value = "INSERT INTO users (user_id, email, password, role, created_at, updated_at) " +
+            "VALUES (:userId, :email, :password, :role, :createdAt, :updatedAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertReplica(@Param("userId") long userId, @Param("email") String email, @Param("password") String password,
+                      @Param("role") String role, @Param("createdAt") LocalDateTime createdAt,
+                      @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,9 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.User;
+
+import java.util.Optional;
+
+public interface UserRespositoryCustom {
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,24 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserRespositoryCustomImpl implements UserRespositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Natural-id lookup so email -> id resolution is served from the users-by-email cache region
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
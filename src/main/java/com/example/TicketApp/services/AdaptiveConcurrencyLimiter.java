@@ -0,0 +1,125 @@
+package com.example.TicketApp.services;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Gradient-style adaptive concurrency limit. Requests are admitted while fewer than `limit` are in
+// flight. Latencies are collected per window; when a window closes the average latency is compared
+// with the no-load baseline and the limit moves by
+//     newLimit = limit * clamp(tolerance * baseline / avgRtt, 0.5, 1.0) + sqrt(limit)
+// so it grows by roughly sqrt(limit) while latency stays near the baseline and shrinks
+// multiplicatively once queueing (in Postgres, the pool or Tomcat) pushes latency up.
+//
+// The hot path (tryAcquire / release) only touches atomics; the window is closed by whichever
+// releasing thread wins a CAS, and everyone else carries on without waiting.
+public class AdaptiveConcurrencyLimiter {
+
+    // How far the baseline drifts upwards per window while the limit sits at its floor, so a
+    // permanently slower database does not pin the limit at the minimum forever
+    private static final double BASELINE_DRIFT = 1.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Current window
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile long windowEnd;
+
+    // Only touched by the thread holding `updating`
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private double estimatedLimit;
+    private double baselineRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos,
+                                      int minWindowSamples, double tolerance, double smoothing, long nowNanos) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit
+                || windowNanos <= 0 || minWindowSamples <= 0 || tolerance < 1.0 || smoothing <= 0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("Invalid concurrency limiter configuration");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.windowEnd = nowNanos + windowNanos;
+    }
+
+    // Every successful tryAcquire must be paired with release()
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        rttSum.add(rttNanos);
+        rttCount.increment();
+
+        if (nowNanos >= windowEnd && updating.compareAndSet(false, true)) {
+            try {
+                if (nowNanos >= windowEnd) {
+                    closeWindow(nowNanos);
+                }
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    private void closeWindow(long nowNanos) {
+        // Too few samples to say anything; keep collecting into the same window
+        if (rttCount.sum() < minWindowSamples) {
+            return;
+        }
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        windowEnd = nowNanos + windowNanos;
+
+        double avgRtt = (double) sum / count;
+        if (baselineRtt == 0 || avgRtt < baselineRtt) {
+            baselineRtt = avgRtt;
+        } else if (estimatedLimit <= minLimit) {
+            baselineRtt = Math.min(avgRtt, baselineRtt * BASELINE_DRIFT);
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / avgRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Nobody got near the limit, so this window's latency says nothing about raising it
+        if (peak < estimatedLimit / 2) {
+            newLimit = Math.min(newLimit, estimatedLimit);
+        }
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
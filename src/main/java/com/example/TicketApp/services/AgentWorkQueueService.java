@@ -0,0 +1,114 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+// Per-agent queue of tickets waiting on the agent, kept in a Redis sorted set. The score is the
+// ticket's creation time minus a boost for its category, so ZPOPMIN hands out the oldest ticket
+// with POSTBOOKING ones ahead. A ticket enters the queue when it is created or the customer
+// replies, and leaves it when the agent replies, resolves it or claims it.
+@Service
+public class AgentWorkQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentWorkQueueService.class);
+
+    public record ClaimedTicket(long ticketId, long remaining) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long postbookingBoostMillis;
+
+    public AgentWorkQueueService(StringRedisTemplate stringRedisTemplate,
+                                 @Value("${ticketapp.agent-queue.postbooking-boost-minutes:240}") long postbookingBoostMinutes) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.postbookingBoostMillis = Duration.ofMinutes(postbookingBoostMinutes).toMillis();
+    }
+
+    // Applied after the surrounding transaction commits
+    public void enqueue(Ticket ticket) {
+        if (ticket.getAgent() == null || ticket.getStatus() == Status.RESOLVED) {
+            return;
+        }
+        enqueue(ticket.getAgent().getUserId(), ticket.getTicketId(), ticket.getCategory(), ticket.getCreatedAt());
+    }
+
+    // Applied after the surrounding transaction commits
+    public void enqueue(long agentId, long ticketId, Category category, LocalDateTime createdAt) {
+        String key = buildKey(agentId);
+        String member = Long.toString(ticketId);
+        double score = score(category, createdAt);
+        afterCommit(() -> stringRedisTemplate.opsForZSet().add(key, member, score));
+    }
+
+    public void remove(long agentId, long ticketId) {
+        remove(agentId, List.of(ticketId));
+    }
+
+    // Applied after the surrounding transaction commits
+    public void remove(long agentId, Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        String key = buildKey(agentId);
+        Object[] members = ticketIds.stream().map(String::valueOf).toArray();
+        afterCommit(() -> stringRedisTemplate.opsForZSet().remove(key, members));
+    }
+
+    // Atomic pop of the highest-priority ticket; null when nothing is waiting. Two agents never
+    // get the same ticket, and the same agent's concurrent claims get different ones.
+    public ClaimedTicket claimNext(long agentId) {
+        String key = buildKey(agentId);
+        ZSetOperations.TypedTuple<String> head = stringRedisTemplate.opsForZSet().popMin(key);
+        if (head == null || head.getValue() == null) {
+            return null;
+        }
+        Long remaining = stringRedisTemplate.opsForZSet().zCard(key);
+        return new ClaimedTicket(Long.parseLong(head.getValue()), remaining != null ? remaining : 0);
+    }
+
+    public String buildKey(long agentId) {
+        return Constants.AGENT_QUEUE_KEY_PREFIX + agentId;
+    }
+
+    private double score(Category category, LocalDateTime createdAt) {
+        long createdAtMillis = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return category == Category.POSTBOOKING ? createdAtMillis - postbookingBoostMillis : createdAtMillis;
+    }
+
+    // The queue only ever reflects committed tickets; a lost update is logged, not fatal to the write
+    private void afterCommit(Runnable update) {
+        Runnable guarded = () -> {
+            try {
+                update.run();
+            } catch (Exception e) {
+                logger.warn("Agent work queue update failed: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+}
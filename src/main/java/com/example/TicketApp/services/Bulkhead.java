@@ -0,0 +1,75 @@
+package com.example.TicketApp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps how many requests of one kind run at once. Up to maxQueued callers may wait up to
+// maxWaitMs for a slot; anyone beyond that is turned away immediately.
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter admitted;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long maxWaitMs, MeterRegistry meterRegistry) {
+        if (maxConcurrent <= 0 || maxQueued < 0 || maxWaitMs < 0) {
+            throw new IllegalArgumentException("Invalid bulkhead configuration for " + name);
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxConcurrent);
+
+        this.admitted = meterRegistry.counter("ticketapp.bulkhead.calls", "bulkhead", name, "result", "admitted");
+        this.rejectedQueueFull = meterRegistry.counter("ticketapp.bulkhead.calls", "bulkhead", name, "result", "queue_full");
+        this.rejectedTimeout = meterRegistry.counter("ticketapp.bulkhead.calls", "bulkhead", name, "result", "timeout");
+        meterRegistry.gauge("ticketapp.bulkhead.active", Tags.of("bulkhead", name), this, Bulkhead::active);
+        meterRegistry.gauge("ticketapp.bulkhead.queued", Tags.of("bulkhead", name), queued);
+    }
+
+    // Every successful tryEnter must be paired with exit()
+    public boolean tryEnter() {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                admitted.increment();
+                return true;
+            }
+            rejectedTimeout.increment();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedTimeout.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.TicketApp.services;
+
+import java.util.Arrays;
+
+// Count-based circuit breaker. CLOSED lets everything through and keeps the outcomes of the
+// last windowSize calls; once at least minimumCalls are recorded and the share of failed or
+// slow calls reaches failureRateThreshold it goes OPEN. OPEN rejects calls for openNanos, then
+// HALF_OPEN admits halfOpenProbes trial calls: all succeeding closes it, any failure reopens it.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // Ring buffer of recent outcomes while CLOSED; true = failed or slow
+    private final boolean[] window;
+    private int windowPosition;
+    private int recordedCalls;
+    private int badCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallNanos, long openNanos, int halfOpenProbes) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize || halfOpenProbes <= 0) {
+            throw new IllegalArgumentException("Invalid circuit breaker configuration");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = halfOpenProbes;
+        this.window = new boolean[windowSize];
+    }
+
+    public synchronized boolean tryAcquirePermission(long nowNanos) {
+        if (state == State.OPEN) {
+            if (nowNanos - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= halfOpenProbes) {
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    // Returns true when this call closed the circuit
+    public synchronized boolean onSuccess(long durationNanos, long nowNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                open(nowNanos);
+                return false;
+            }
+            if (++probesSucceeded >= halfOpenProbes) {
+                state = State.CLOSED;
+                resetWindow();
+                return true;
+            }
+            return false;
+        }
+        record(slow, nowNanos);
+        return false;
+    }
+
+    public synchronized void onFailure(long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            open(nowNanos);
+            return;
+        }
+        record(true, nowNanos);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean bad, long nowNanos) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recordedCalls == windowSize) {
+            if (window[windowPosition]) {
+                badCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowPosition] = bad;
+        if (bad) {
+            badCalls++;
+        }
+        windowPosition = (windowPosition + 1) % windowSize;
+
+        if (recordedCalls >= minimumCalls && badCalls >= failureRateThreshold * recordedCalls) {
+            open(nowNanos);
+        }
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openedAt = nowNanos;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        Arrays.fill(window, false);
+        windowPosition = 0;
+        recordedCalls = 0;
+        badCalls = 0;
+    }
+}
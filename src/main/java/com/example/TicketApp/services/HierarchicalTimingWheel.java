@@ -0,0 +1,153 @@
+package com.example.TicketApp.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hierarchical timing wheel (Varghese & Lauck, as in the classic Linux timer base): LEVELS wheels
+// of SLOTS buckets each. Level 0 holds timers due within SLOTS ticks, level n those due within
+// SLOTS^(n+1) ticks. Each tick drains one level-0 bucket; whenever level 0 wraps, one bucket of
+// the next level is cascaded down. Scheduling and cancelling are O(1) (buckets are doubly linked
+// lists and timers are indexed by key), and each timer is moved at most LEVELS - 1 times.
+// Timers further out than the top level can reach wait in its last bucket and are re-placed.
+public class HierarchicalTimingWheel<K> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (BITS * LEVELS);
+
+    private static final class Timer<K> {
+        final K key;
+        final long expiryTick;
+        int level;
+        int slot;
+        Timer<K> prev;
+        Timer<K> next;
+
+        Timer(K key, long expiryTick) {
+            this.key = key;
+            this.expiryTick = expiryTick;
+        }
+    }
+
+    private final long tickMs;
+    private final Timer<K>[][] buckets;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    // Next tick to be processed
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, long nowMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        this.tickMs = tickMs;
+        this.buckets = new Timer[LEVELS][SLOTS];
+        this.currentTick = nowMs / tickMs;
+    }
+
+    // Replaces any timer already scheduled for the key. Deadlines in the past fire on the next advance.
+    public synchronized void schedule(K key, long deadlineMs) {
+        Timer<K> existing = timers.remove(key);
+        if (existing != null) {
+            unlink(existing);
+        }
+        Timer<K> timer = new Timer<>(key, Math.floorDiv(deadlineMs + tickMs - 1, tickMs));
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    // Processes every tick up to nowMs and returns the keys whose deadline has passed
+    public synchronized List<K> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        List<K> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                cascade();
+            }
+            Timer<K> timer = buckets[0][index];
+            buckets[0][index] = null;
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timers.remove(timer.key);
+                expired.add(timer.key);
+                timer = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    // Moves the due bucket of level 1 down, and of level 2 when level 1 wrapped too, and so on
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int slot = (int) ((currentTick >> (BITS * level)) & MASK);
+            Timer<K> timer = buckets[level][slot];
+            buckets[level][slot] = null;
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                place(timer);
+                timer = next;
+            }
+            if (slot != 0) {
+                return;
+            }
+        }
+    }
+
+    private void place(Timer<K> timer) {
+        long delta = timer.expiryTick - currentTick;
+        if (delta < 0) {
+            link(timer, 0, (int) (currentTick & MASK));
+            return;
+        }
+        long expiryTick = delta < MAX_SPAN ? timer.expiryTick : currentTick + MAX_SPAN - 1;
+        delta = expiryTick - currentTick;
+        int level = 0;
+        while (delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        link(timer, level, (int) ((expiryTick >> (BITS * level)) & MASK));
+    }
+
+    private void link(Timer<K> timer, int level, int slot) {
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = buckets[level][slot];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        buckets[level][slot] = timer;
+    }
+
+    private void unlink(Timer<K> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+}
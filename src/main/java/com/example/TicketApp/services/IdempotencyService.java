@@ -0,0 +1,232 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.constants.Constants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs a create endpoint at most once per Idempotency-Key. The first request claims the key
+// in Redis with SET NX, runs, and stores its response for the TTL. Retries that arrive while it
+// runs get 409 with Retry-After at once, so no request thread (or bulkhead permit) is spent
+// waiting; later retries get the response replayed without touching the database. The claim
+// carries a random token: a heartbeat renews it while the request runs, and the response is only
+// stored (or the key released) while the token still owns the key.
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final String KEY_PREFIX = "idempotency::";
+    private static final String STATE_PENDING = "PENDING";
+    private static final String STATE_DONE = "DONE";
+    private static final int CLAIM_ATTEMPTS = 2;
+
+    private static final String TOKEN_MATCHES =
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v or cjson.decode(v)['token'] ~= ARGV[1] then return 0 end ";
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            TOKEN_MATCHES + "return redis.call('PEXPIRE', KEYS[1], ARGV[2])", Long.class);
+    private static final DefaultRedisScript<Long> STORE_SCRIPT = new DefaultRedisScript<>(
+            TOKEN_MATCHES + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1", Long.class);
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            TOKEN_MATCHES + "return redis.call('DEL', KEYS[1])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration responseTtl;
+    private final Duration claimTtl;
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("idempotency-heartbeat").daemon().factory());
+
+    public IdempotencyService(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper,
+                              @Value("${ticketapp.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${ticketapp.idempotency.claim-ttl-seconds:30}") long claimTtlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.responseTtl = Duration.ofSeconds(ttlSeconds);
+        this.claimTtl = Duration.ofSeconds(claimTtlSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    // scope keeps keys of different endpoints and users apart; request is fingerprinted so a
+    // key reused for a different payload is rejected instead of replaying the wrong response
+    public ResponseEntity<Map<String, Object>> execute(String scope, String idempotencyKey, Object request,
+                                                       Supplier<ResponseEntity<Map<String, Object>>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String redisKey = KEY_PREFIX + scope + "::" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        String token = UUID.randomUUID().toString();
+
+        // A second attempt only covers the original releasing the key between our SET NX and GET
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            Boolean claimed;
+            String storedValue = null;
+            try {
+                claimed = stringRedisTemplate.opsForValue().setIfAbsent(redisKey, write(STATE_PENDING, token, fingerprint, null), claimTtl);
+                if (!Boolean.TRUE.equals(claimed)) {
+                    storedValue = stringRedisTemplate.opsForValue().get(redisKey);
+                }
+            } catch (Exception e) {
+                // Without Redis a retry may run twice; that is preferable to failing every create
+                logger.warn("Idempotency store unavailable, running without it: {}", e.getMessage());
+                return action.get();
+            }
+            if (Boolean.TRUE.equals(claimed)) {
+                return runAndStore(redisKey, token, fingerprint, action);
+            }
+
+            Map<String, Object> stored = read(storedValue);
+            if (stored != null) {
+                if (!fingerprint.equals(stored.get("fingerprint"))) {
+                    return errorResponse(HttpStatus.UNPROCESSABLE_ENTITY, Constants.MESSAGE_IDEMPOTENCY_KEY_REUSED);
+                }
+                if (STATE_DONE.equals(stored.get("state"))) {
+                    return replay(stored);
+                }
+                return inProgress();
+            }
+        }
+        return inProgress();
+    }
+
+    private ResponseEntity<Map<String, Object>> runAndStore(String redisKey, String token, String fingerprint,
+                                                            Supplier<ResponseEntity<Map<String, Object>>> action) {
+        long renewEveryMs = Math.max(1L, claimTtl.toMillis() / 3);
+        ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(() -> renew(redisKey, token),
+                renewEveryMs, renewEveryMs, TimeUnit.MILLISECONDS);
+        ResponseEntity<Map<String, Object>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(redisKey, token);
+            throw e;
+        } finally {
+            renewal.cancel(false);
+        }
+
+        try {
+            // Server errors and conflicts are not final; release the key so a retry runs the request again
+            if (response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == HttpStatus.CONFLICT.value()) {
+                release(redisKey, token);
+            } else {
+                Map<String, Object> result = new HashMap<>();
+                result.put("status", response.getStatusCode().value());
+                result.put("body", response.getBody());
+                Long stored = stringRedisTemplate.execute(STORE_SCRIPT, List.of(redisKey), token,
+                        write(STATE_DONE, token, fingerprint, result), String.valueOf(responseTtl.toMillis()));
+                if (stored == null || stored == 0L) {
+                    // The claim expired and another attempt owns the key now; its result is the one kept
+                    logger.warn("Lost the idempotency claim on {} before storing the response", redisKey);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to store idempotent response for {}: {}", redisKey, e.getMessage());
+        }
+        return response;
+    }
+
+    private void renew(String redisKey, String token) {
+        try {
+            stringRedisTemplate.execute(RENEW_SCRIPT, List.of(redisKey), token, String.valueOf(claimTtl.toMillis()));
+        } catch (Exception e) {
+            logger.warn("Failed to renew idempotency claim {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<Map<String, Object>> replay(Map<String, Object> stored) {
+        Map<String, Object> result = (Map<String, Object>) stored.get("result");
+        return ResponseEntity.status(((Number) result.get("status")).intValue())
+                .header(Constants.HEADER_IDEMPOTENT_REPLAYED, "true")
+                .body((Map<String, Object>) result.get("body"));
+    }
+
+    private void release(String redisKey, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey), token);
+        } catch (Exception e) {
+            logger.warn("Failed to release idempotency key {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> inProgress() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", Constants.STATUS_ERROR);
+        response.put("message", Constants.MESSAGE_IDEMPOTENT_REQUEST_IN_PROGRESS);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Constants.IDEMPOTENCY_RETRY_AFTER_SECONDS))
+                .body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", Constants.STATUS_ERROR);
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private String write(String state, String token, String fingerprint, Map<String, Object> result) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("state", state);
+        value.put("token", token);
+        value.put("fingerprint", fingerprint);
+        value.put("result", result);
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent response", e);
+        }
+    }
+
+    private Map<String, Object> read(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            logger.warn("Discarding unreadable idempotency entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+}
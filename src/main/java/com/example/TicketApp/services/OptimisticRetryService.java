@@ -0,0 +1,66 @@
+package com.example.TicketApp.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Re-runs a whole transaction when it loses an optimistic-lock race. Waits are exponential
+// with full jitter, so writers colliding on one hot ticket spread out instead of colliding again.
+// The work must open its own transaction; retrying inside a rolled-back one cannot succeed.
+@Service
+public class OptimisticRetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryService.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryService(MeterRegistry meterRegistry,
+                                  @Value("${ticketapp.optimistic-retry.max-attempts:4}") int maxAttempts,
+                                  @Value("${ticketapp.optimistic-retry.base-backoff-ms:10}") long baseBackoffMs,
+                                  @Value("${ticketapp.optimistic-retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("ticketapp.optimistic_lock.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("ticketapp.optimistic_lock.exhausted", "operation", operation).increment();
+                    logger.warn("{} gave up after {} optimistic lock conflicts", operation, attempt);
+                    throw e;
+                }
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^attempt)]
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
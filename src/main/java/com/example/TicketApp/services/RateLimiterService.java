@@ -0,0 +1,126 @@
+package com.example.TicketApp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class RateLimiterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
+
+    public static final String MODE_LOCAL = "local";
+    public static final String MODE_REDIS = "redis";
+
+    // Same GCRA as TokenBucket, evaluated atomically in Redis with the server clock
+    // so every instance in the cluster shares one bucket per user.
+    private static final String GCRA_SCRIPT =
+            "local interval = tonumber(ARGV[1]) " +
+            "local burst = tonumber(ARGV[2]) " +
+            "local t = redis.call('TIME') " +
+            "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1]) or now) " +
+            "if tat < now then tat = now end " +
+            "local newTat = tat + interval " +
+            "local allowAt = newTat - burst " +
+            "if allowAt > now then return allowAt - now end " +
+            "redis.call('SET', KEYS[1], newTat, 'PX', math.ceil(burst / 1000) + 1000) " +
+            "return 0";
+
+    private static final String REDIS_KEY_PREFIX = "rate_limit::";
+
+    // Lock-free lookups; once maxLocalBuckets is exceeded one caller trims it, dropping refilled
+    // buckets first, so a flood of new keys can never grow it much past the bound.
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final DefaultRedisScript<Long> gcraScript = new DefaultRedisScript<>(GCRA_SCRIPT, Long.class);
+
+    private final long capacity;
+    private final double refillPerSecond;
+    private final String mode;
+    private final int maxLocalBuckets;
+
+    public RateLimiterService(StringRedisTemplate stringRedisTemplate,
+                              @Value("${ticketapp.rate-limit.capacity:20}") long capacity,
+                              @Value("${ticketapp.rate-limit.refill-per-second:5}") double refillPerSecond,
+                              @Value("${ticketapp.rate-limit.mode:local}") String mode,
+                              @Value("${ticketapp.rate-limit.max-local-buckets:100000}") int maxLocalBuckets) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.mode = mode;
+        this.maxLocalBuckets = maxLocalBuckets;
+    }
+
+    public static String userKey(long userId) {
+        return "user:" + userId;
+    }
+
+    public static String ipKey(String remoteAddr) {
+        return "ip:" + remoteAddr;
+    }
+
+    // Returns 0 when the call is admitted, otherwise the number of milliseconds to wait
+    public long tryAcquire(String key) {
+        if (MODE_REDIS.equalsIgnoreCase(mode)) {
+            return tryAcquireRedis(key);
+        }
+        return tryAcquireLocal(key);
+    }
+
+    private long tryAcquireLocal(String key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond));
+            if (buckets.size() > maxLocalBuckets) {
+                trim();
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(bucket.tryAcquire(System.nanoTime()) + 999_999L);
+    }
+
+    // Down to 90% of the bound so the sweep is not repeated on every new key
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int target = maxLocalBuckets - maxLocalBuckets / 10;
+            buckets.values().removeIf(bucket -> buckets.size() > target && bucket.isFull(now));
+            // Still too many live buckets: drop arbitrary ones, which only hands those keys a fresh burst
+            Iterator<String> keys = buckets.keySet().iterator();
+            while (buckets.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private long tryAcquireRedis(String key) {
+        long intervalMicros = Math.max(1L, (long) (1_000_000L / refillPerSecond));
+        try {
+            Long waitMicros = stringRedisTemplate.execute(gcraScript,
+                    Collections.singletonList(REDIS_KEY_PREFIX + key),
+                    String.valueOf(intervalMicros),
+                    String.valueOf(intervalMicros * capacity));
+            return waitMicros == null ? 0L : TimeUnit.MICROSECONDS.toMillis(waitMicros + 999L);
+        } catch (Exception e) {
+            // Fail open on the cluster-wide limit but keep protecting this instance
+            logger.warn("Redis rate limiter unavailable, using local bucket: {}", e.getMessage());
+            return tryAcquireLocal(key);
+        }
+    }
+}
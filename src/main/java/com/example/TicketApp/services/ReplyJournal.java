@@ -0,0 +1,290 @@
+package com.example.TicketApp.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only journal of opaque records on memory-mapped segment files. Each record is
+//
+//   | int payload length | int CRC32 of seq + payload | long seq | payload |
+//
+// with seq increasing by one per record. write() copies a record into the mapped segment and
+// awaitDurable() returns once it is on disk. Writers that wait together share one msync (group
+// commit): whoever finds no sync running forces everything written so far, the rest wait for it.
+// checkpoint(seq) records that the caller has applied everything up to seq; segments wholly below
+// it are deleted. On open, records after the checkpoint are returned by recovered(); scanning stops
+// at the first torn or corrupt record, which can only be the tail of the last write before a crash.
+public class ReplyJournal implements Closeable {
+
+    public record Entry(long seq, byte[] payload) {
+    }
+
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FileChannel checkpointChannel;
+    // First seq of each segment -> its file
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final List<Entry> recovered = new ArrayList<>();
+
+    private FileChannel currentChannel;
+    private MappedByteBuffer current;
+    private int writePosition;
+    private int syncedPosition;
+    private long lastSeq;
+    private long durableSeq;
+    private long checkpointSeq;
+    private boolean syncing;
+    private IOException failure;
+
+    public ReplyJournal(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes must be larger than " + HEADER_BYTES);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer stored = ByteBuffer.allocate(Long.BYTES);
+        if (checkpointChannel.read(stored, 0) == Long.BYTES) {
+            checkpointSeq = stored.getLong(0);
+        }
+        recover();
+    }
+
+    // Records after the checkpoint that were on disk when the journal was opened, in seq order
+    public List<Entry> recovered() {
+        return recovered;
+    }
+
+    // Copies the record into the journal and returns its seq; it is durable once awaitDurable(seq) returns
+    public synchronized long write(byte[] payload) throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal is unusable after an earlier failure", failure);
+        }
+        if (HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a journal segment");
+        }
+        if (writePosition + HEADER_BYTES + payload.length > segmentBytes) {
+            roll();
+        }
+        long seq = lastSeq + 1;
+        current.putInt(writePosition, payload.length);
+        current.putInt(writePosition + 4, crc(seq, payload));
+        current.putLong(writePosition + 8, seq);
+        current.put(writePosition + HEADER_BYTES, payload);
+        writePosition += HEADER_BYTES + payload.length;
+        lastSeq = seq;
+        return seq;
+    }
+
+    public void awaitDurable(long seq) throws IOException {
+        while (true) {
+            MappedByteBuffer buffer;
+            int from;
+            int to;
+            long target;
+            synchronized (this) {
+                while (durableSeq < seq && syncing && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for the journal sync");
+                    }
+                }
+                if (failure != null) {
+                    throw new IOException("Journal sync failed", failure);
+                }
+                if (durableSeq >= seq) {
+                    return;
+                }
+                syncing = true;
+                buffer = current;
+                from = syncedPosition;
+                to = writePosition;
+                target = lastSeq;
+            }
+
+            try {
+                buffer.force(from, to - from);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    failure = new IOException(e);
+                    syncing = false;
+                    notifyAll();
+                }
+                throw new IOException("Journal sync failed", e);
+            }
+
+            synchronized (this) {
+                durableSeq = Math.max(durableSeq, target);
+                if (buffer == current) {
+                    syncedPosition = Math.max(syncedPosition, to);
+                }
+                syncing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    public synchronized long durableSeq() {
+        return durableSeq;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    public synchronized long checkpointSeq() {
+        return checkpointSeq;
+    }
+
+    // Meant for a single caller (the flusher); the fsync runs outside the lock so writers are not held up
+    public void checkpoint(long seq) throws IOException {
+        if (seq <= checkpointSeq()) {
+            return;
+        }
+        ByteBuffer stored = ByteBuffer.allocate(Long.BYTES).putLong(0, seq);
+        checkpointChannel.write(stored, 0);
+        checkpointChannel.force(false);
+
+        synchronized (this) {
+            checkpointSeq = seq;
+            // A segment can go once the next one starts at or below checkpoint + 1
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                Long nextFirstSeq = segments.higherKey(oldest.getKey());
+                if (nextFirstSeq - 1 > seq) {
+                    break;
+                }
+                Files.deleteIfExists(oldest.getValue());
+                segments.remove(oldest.getKey());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null && failure == null) {
+            current.force();
+        }
+        if (currentChannel != null) {
+            currentChannel.close();
+        }
+        checkpointChannel.close();
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(file -> segments.put(firstSeqOf(file), file));
+        }
+        lastSeq = checkpointSeq;
+
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            boolean last = segment.getKey().equals(segments.lastKey());
+            FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            int position = scan(buffer, segment.getKey());
+            if (last) {
+                // Clear whatever a torn write left behind, then keep appending here
+                for (int i = position; i < segmentBytes; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+                currentChannel = channel;
+                current = buffer;
+                writePosition = position;
+                syncedPosition = position;
+            } else {
+                channel.close();
+            }
+        }
+        if (current == null) {
+            openSegment(lastSeq + 1);
+        }
+        durableSeq = lastSeq;
+    }
+
+    // Reads valid records from the start of the segment and returns where the next one goes
+    private int scan(MappedByteBuffer buffer, long firstSeq) {
+        int position = 0;
+        long expectedSeq = firstSeq;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            long seq = buffer.getLong(position + 8);
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            if (seq != expectedSeq || buffer.getInt(position + 4) != crc(seq, payload)) {
+                break;
+            }
+            if (seq > checkpointSeq) {
+                recovered.add(new Entry(seq, payload));
+            }
+            lastSeq = Math.max(lastSeq, seq);
+            expectedSeq++;
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    // Called under the lock: the full segment is forced here, so every seq written so far is durable
+    private void roll() throws IOException {
+        current.force();
+        currentChannel.close();
+        durableSeq = lastSeq;
+        openSegment(lastSeq + 1);
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        currentChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        current = currentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        writePosition = 0;
+        syncedPosition = 0;
+        segments.put(firstSeq, file);
+        syncDirectory();
+    }
+
+    // Makes the new file's directory entry durable too
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the segment contents are still forced
+        }
+    }
+
+    private static long firstSeqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int crc(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, seq));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.entity.TicketResponse;
+import com.example.TicketApp.enums.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Optional write-behind mode for replies (ticketapp.reply-write-behind.enabled). A reply is
+// acknowledged once it is durable in a local memory-mapped journal, and a background writer
+// inserts journaled replies into Postgres in per-shard batches. Reply ids are generated in-process,
+// so each insert carries its final id and uses ON CONFLICT DO NOTHING: replaying the journal after
+// a crash (everything past the last checkpoint) cannot insert a reply twice, and the ticket's
+// version/updated_at bump only applies to rows that were actually inserted. Until a reply is
+// flushed, reads of its ticket on this instance merge it in from memory. Until the checkpoint also
+// covers it, the reply counts as pending for edits and deletes, so a delete can never be followed by
+// a replay that inserts the reply again.
+@Service
+public class ReplyWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplyWriteBehindService.class);
+
+    // Inserts the reply and, only if it was new, touches its ticket like the synchronous path's re-save
+    private static final String INSERT_REPLY_SQL =
+            "WITH inserted AS (" +
+            "INSERT INTO ticket_responses (response_id, ticket_id, user_id, role, response_text, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, now(), 0) ON CONFLICT (response_id) DO NOTHING RETURNING ticket_id) " +
+            "UPDATE tickets SET updated_at = now(), version = version + 1 WHERE ticket_id IN (SELECT ticket_id FROM inserted)";
+
+    public record PendingReply(long responseId, long ticketId, long userId, String userEmail, Role role,
+                               String responseText, LocalDateTime createdAt) {
+
+        // Transient entity for the read paths; never persisted through JPA
+        public TicketResponse toResponse() {
+            TicketResponse response = new TicketResponse();
+            response.setResponseId(responseId);
+            response.setRole(role);
+            response.setResponseText(responseText);
+            response.setCreatedAt(createdAt);
+            response.setUpdatedAt(createdAt);
+            return response;
+        }
+    }
+
+    private final boolean enabled;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final ReplyJournal journal;
+    private final ScheduledExecutorService flusher;
+    // Journal seq -> reply, for everything written but not yet in the database
+    private final ConcurrentSkipListMap<Long, PendingReply> unflushed = new ConcurrentSkipListMap<>();
+    // Acknowledged replies by ticket, for read-your-writes until the flush
+    private final Map<Long, Map<Long, PendingReply>> pendingByTicket = new ConcurrentHashMap<>();
+    // Journal seq -> response id, for replies in the database that a replay would still insert again
+    private final ConcurrentSkipListMap<Long, Long> uncheckpointed = new ConcurrentSkipListMap<>();
+    private final Set<Long> uncheckpointedIds = ConcurrentHashMap.newKeySet();
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+    private final Counter flushed;
+    private final Counter dropped;
+
+    public ReplyWriteBehindService(ShardRouter shardRouter, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                   @Value("${ticketapp.reply-write-behind.enabled:false}") boolean enabled,
+                                   @Value("${ticketapp.reply-write-behind.directory:data/reply-journal}") String directory,
+                                   @Value("${ticketapp.reply-write-behind.segment-bytes:16777216}") int segmentBytes,
+                                   @Value("${ticketapp.reply-write-behind.batch-size:500}") int batchSize,
+                                   @Value("${ticketapp.reply-write-behind.flush-interval-ms:50}") long flushIntervalMs) {
+        this.enabled = enabled;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushed = meterRegistry.counter("ticketapp.reply_write_behind.flushed");
+        this.dropped = meterRegistry.counter("ticketapp.reply_write_behind.dropped");
+        meterRegistry.gaugeMapSize("ticketapp.reply_write_behind.pending", List.of(), unflushed);
+
+        if (!enabled) {
+            this.journal = null;
+            this.flusher = null;
+            return;
+        }
+        try {
+            this.journal = new ReplyJournal(Path.of(directory), segmentBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open the reply journal in " + directory, e);
+        }
+        for (ReplyJournal.Entry entry : journal.recovered()) {
+            PendingReply reply = decode(entry.payload());
+            unflushed.put(entry.seq(), reply);
+            addPending(reply);
+        }
+        if (!unflushed.isEmpty()) {
+            logger.info("Recovered {} journaled replies that were not flushed yet", unflushed.size());
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("reply-flusher").daemon().factory());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Assigns the reply its id and creation time and returns once it is durable in the journal
+    public TicketResponse append(TicketResponse response, String userEmail) {
+        long ticketId = response.getTicket().getTicketId();
+        response.setResponseId(TimeOrderedIdGenerator.shared().nextId(shardRouter.shardForTicket(ticketId)));
+        response.setCreatedAt(LocalDateTime.now());
+        response.setUpdatedAt(response.getCreatedAt());
+        PendingReply reply = new PendingReply(response.getResponseId(), ticketId, response.getUser().getUserId(),
+                userEmail, response.getRole(), response.getResponseText(), response.getCreatedAt());
+
+        long seq = 0;
+        try {
+            byte[] payload = encode(reply);
+            // Seq order and the unflushed map must agree, or a checkpoint could skip a reply
+            synchronized (appendLock) {
+                seq = journal.write(payload);
+                unflushed.put(seq, reply);
+                addPending(reply);
+            }
+            journal.awaitDurable(seq);
+        } catch (IOException e) {
+            if (seq > 0) {
+                unflushed.remove(seq);
+                removePending(reply);
+            }
+            throw new UncheckedIOException("Could not journal reply for ticket " + ticketId, e);
+        }
+        return response;
+    }
+
+    // Acknowledged replies of the ticket that are not in the database yet, oldest first
+    public List<PendingReply> pendingReplies(long ticketId) {
+        Map<Long, PendingReply> pending = pendingByTicket.get(ticketId);
+        if (pending == null || pending.isEmpty()) {
+            return List.of();
+        }
+        List<PendingReply> replies = new ArrayList<>(pending.values());
+        replies.sort(Comparator.comparingLong(PendingReply::responseId));
+        return replies;
+    }
+
+    // True until the reply is flushed and behind the journal checkpoint, i.e. while editing or
+    // deleting its row could be undone by a replay
+    public boolean isPending(long ticketId, long responseId) {
+        Map<Long, PendingReply> pending = pendingByTicket.get(ticketId);
+        return (pending != null && pending.containsKey(responseId)) || uncheckpointedIds.contains(responseId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flushQuietly, 0, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Drains everything that is durable; used by the background writer and before editing an unflushed reply
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            int flushedCount;
+            do {
+                flushedCount = flushBatch();
+            } while (flushedCount == batchSize);  // A full batch means more may be waiting
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+        } catch (Exception e) {
+            logger.warn("Final reply flush failed, {} replies stay in the journal: {}", unflushed.size(), e.getMessage());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Closing the reply journal failed: {}", e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("Reply flush failed, retrying: {}", e.getMessage());
+        }
+    }
+
+    // Returns how many replies left the unflushed set
+    private int flushBatch() {
+        Map<Integer, Map<Long, PendingReply>> byShard = new LinkedHashMap<>();
+        int taken = 0;
+        for (Map.Entry<Long, PendingReply> entry : unflushed.headMap(journal.durableSeq(), true).entrySet()) {
+            if (taken++ == batchSize) {
+                break;
+            }
+            byShard.computeIfAbsent(shardRouter.shardForTicket(entry.getValue().ticketId()), shard -> new LinkedHashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        if (byShard.isEmpty()) {
+            checkpoint();
+            return 0;
+        }
+
+        List<Long> done = new ArrayList<>();
+        byShard.forEach((shard, replies) -> {
+            try {
+                shardRouter.inTransaction(shard, () -> jdbcTemplate.batchUpdate(INSERT_REPLY_SQL,
+                        replies.values().stream().map(this::insertArgs).toList()));
+                done.addAll(replies.keySet());
+                flushed.increment(replies.size());
+            } catch (DataAccessException e) {
+                // Find the reply that fails; the rest go in one by one
+                flushOneByOne(shard, replies, done);
+            }
+        });
+
+        for (Long seq : done) {
+            PendingReply reply = unflushed.get(seq);
+            uncheckpointed.put(seq, reply.responseId());
+            uncheckpointedIds.add(reply.responseId());
+            unflushed.remove(seq);
+            removePending(reply);
+        }
+        checkpoint();
+        return done.size();
+    }
+
+    // Moves the checkpoint past every flushed reply that no unflushed one precedes. Until that
+    // succeeds those replies stay pending for edits and deletes, which keeps retrying them.
+    private void checkpoint() {
+        if (uncheckpointed.isEmpty()) {
+            return;
+        }
+        long checkpoint;
+        synchronized (appendLock) {
+            checkpoint = unflushed.isEmpty() ? journal.lastSeq() : unflushed.firstKey() - 1;
+        }
+        try {
+            journal.checkpoint(checkpoint);
+        } catch (IOException e) {
+            logger.error("Could not write the reply journal checkpoint, {} flushed replies stay locked for edits: {}",
+                    uncheckpointed.size(), e.getMessage());
+            return;
+        }
+        Map<Long, Long> covered = uncheckpointed.headMap(checkpoint, true);
+        uncheckpointedIds.removeAll(covered.values());
+        covered.clear();
+    }
+
+    private void flushOneByOne(int shard, Map<Long, PendingReply> replies, List<Long> done) {
+        for (Map.Entry<Long, PendingReply> entry : replies.entrySet()) {
+            PendingReply reply = entry.getValue();
+            try {
+                shardRouter.inTransaction(shard, () -> jdbcTemplate.update(INSERT_REPLY_SQL, insertArgs(reply)));
+                done.add(entry.getKey());
+                flushed.increment();
+            } catch (DataIntegrityViolationException e) {
+                // Can never succeed (e.g. the ticket is gone); keeping it would block the checkpoint forever
+                logger.error("Dropping journaled reply {} for ticket {}: {}", reply.responseId(), reply.ticketId(), e.getMessage());
+                done.add(entry.getKey());
+                dropped.increment();
+            } catch (DataAccessException e) {
+                logger.warn("Flushing replies to shard {} failed, retrying later: {}", shard, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void addPending(PendingReply reply) {
+        pendingByTicket.compute(reply.ticketId(), (id, pending) -> {
+            Map<Long, PendingReply> replies = pending != null ? pending : new ConcurrentHashMap<>();
+            replies.put(reply.responseId(), reply);
+            return replies;
+        });
+    }
+
+    private void removePending(PendingReply reply) {
+        pendingByTicket.computeIfPresent(reply.ticketId(), (id, pending) -> {
+            pending.remove(reply.responseId());
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+
+    private Object[] insertArgs(PendingReply reply) {
+        return new Object[] {reply.responseId(), reply.ticketId(), reply.userId(), reply.role().name(),
+                reply.responseText(), Timestamp.valueOf(reply.createdAt())};
+    }
+
+    private static byte[] encode(PendingReply reply) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + reply.responseText().length() * 3);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(reply.responseId());
+            out.writeLong(reply.ticketId());
+            out.writeLong(reply.userId());
+            out.writeUTF(reply.userEmail() != null ? reply.userEmail() : "");
+            out.writeUTF(reply.role().name());
+            byte[] text = reply.responseText().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(text.length);
+            out.write(text);
+            out.writeUTF(reply.createdAt().toString());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PendingReply decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long responseId = in.readLong();
+            long ticketId = in.readLong();
+            long userId = in.readLong();
+            String userEmail = in.readUTF();
+            Role role = Role.valueOf(in.readUTF());
+            byte[] text = new byte[in.readInt()];
+            in.readFully(text);
+            LocalDateTime createdAt = LocalDateTime.parse(in.readUTF());
+            return new PendingReply(responseId, ticketId, userId, userEmail.isEmpty() ? null : userEmail, role,
+                    new String(text, StandardCharsets.UTF_8), createdAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.TicketApp.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Cache calls to Redis behind a circuit breaker. The client timeout (spring.data.redis.timeout)
+// bounds each call; failed or slow calls trip the breaker, and while it is open every call is
+// answered from a small in-process LRU that mirrors recently read and written entries. Deletes
+// that fail are queued and replayed after the next successful call, or by a timer when no call
+// comes through, so a stale entry is not served until its TTL runs out.
+@Service
+public class ResilientRedisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientRedisCache.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final LocalCache localCache;
+    private final Set<String> pendingDeletes = ConcurrentHashMap.newKeySet();
+    private final int maxPendingDeletes;
+    private final Duration localTtl;
+
+    private final Counter rejectedCalls;
+    private final Counter failedCalls;
+    private final Counter fallbackHits;
+
+    public ResilientRedisCache(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry,
+                               @Value("${ticketapp.redis.breaker.window-size:20}") int windowSize,
+                               @Value("${ticketapp.redis.breaker.minimum-calls:10}") int minimumCalls,
+                               @Value("${ticketapp.redis.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                               @Value("${ticketapp.redis.breaker.slow-call-ms:100}") long slowCallMs,
+                               @Value("${ticketapp.redis.breaker.open-ms:5000}") long openMs,
+                               @Value("${ticketapp.redis.breaker.half-open-probes:3}") int halfOpenProbes,
+                               @Value("${ticketapp.redis.fallback.max-entries:10000}") int maxLocalEntries,
+                               @Value("${ticketapp.redis.fallback.ttl-seconds:60}") long localTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                Duration.ofMillis(slowCallMs).toNanos(), Duration.ofMillis(openMs).toNanos(), halfOpenProbes);
+        this.localCache = new LocalCache(maxLocalEntries);
+        this.maxPendingDeletes = maxLocalEntries;
+        this.localTtl = Duration.ofSeconds(localTtlSeconds);
+
+        this.rejectedCalls = meterRegistry.counter("ticketapp.redis.calls", "result", "rejected");
+        this.failedCalls = meterRegistry.counter("ticketapp.redis.calls", "result", "failed");
+        this.fallbackHits = meterRegistry.counter("ticketapp.redis.fallback.hits");
+        meterRegistry.gauge("ticketapp.redis.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal());
+        meterRegistry.gauge("ticketapp.redis.fallback.size", localCache, LocalCache::size);
+    }
+
+    public Object get(String key) {
+        return call(() -> {
+            Object value = redisTemplate.opsForValue().get(key);
+            mirror(key, value);
+            return value;
+        }, () -> localGet(key));
+    }
+
+    // Values come back in key order, null where nothing is cached
+    public List<Object> multiGet(List<String> keys) {
+        return call(() -> {
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                mirror(keys.get(i), values.get(i));
+            }
+            return values;
+        }, () -> {
+            List<Object> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(localGet(key));
+            }
+            return values;
+        });
+    }
+
+    public void set(String key, Object value, Duration ttl) {
+        localCache.put(key, value, System.nanoTime() + Math.min(ttl.toNanos(), localTtl.toNanos()));
+        call(() -> {
+            redisTemplate.opsForValue().set(key, value, ttl);
+            return null;
+        }, () -> null);
+    }
+
+    // Pipelined SETs so many entries cost a single round trip
+    @SuppressWarnings("unchecked")
+    public void setAll(Map<String, ?> entries, Duration ttl) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + Math.min(ttl.toNanos(), localTtl.toNanos());
+        entries.forEach((key, value) -> localCache.put(key, value, expiresAt));
+        call(() -> {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    entries.forEach((key, value) -> ops.opsForValue().set(key, value, ttl));
+                    return null;
+                }
+            });
+            return null;
+        }, () -> null);
+    }
+
+    public void delete(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        for (String key : keys) {
+            localCache.remove(key);
+        }
+        call(() -> {
+            redisTemplate.delete(keys);
+            return null;
+        }, () -> {
+            // Redis may still hold these; delete them as soon as it is reachable again
+            queueDeletes(keys);
+            return null;
+        });
+    }
+
+    // A failed DEL does not necessarily open the breaker, so queued deletes cannot wait for it to
+    // close; while it is open the half-open probe that closes it replays them instead
+    @Scheduled(fixedDelayString = "${ticketapp.redis.pending-delete-retry-ms:1000}")
+    public void retryPendingDeletes() {
+        if (!pendingDeletes.isEmpty() && circuitBreaker.getState() == CircuitBreaker.State.CLOSED) {
+            replayPendingDeletes();
+        }
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> T call(Supplier<T> redisCall, Supplier<T> fallback) {
+        long start = System.nanoTime();
+        if (!circuitBreaker.tryAcquirePermission(start)) {
+            rejectedCalls.increment();
+            return fallback.get();
+        }
+        // Every admitted call reports an outcome, whatever it throws; otherwise a HALF_OPEN probe
+        // that failed with e.g. a serialization error would hold its permit and keep the circuit stuck
+        boolean recorded = false;
+        try {
+            T result = redisCall.get();
+            long end = System.nanoTime();
+            recorded = true;
+            if (circuitBreaker.onSuccess(end - start, end)) {
+                logger.info("Redis circuit closed");
+            }
+            replayPendingDeletes();
+            return result;
+        } catch (DataAccessException e) {
+            recorded = true;
+            circuitBreaker.onFailure(System.nanoTime());
+            failedCalls.increment();
+            logger.warn("Redis call failed, serving from local cache: {}", e.getMessage());
+            return fallback.get();
+        } finally {
+            if (!recorded) {
+                circuitBreaker.onFailure(System.nanoTime());
+                failedCalls.increment();
+            }
+        }
+    }
+
+    private void mirror(String key, Object value) {
+        if (value == null) {
+            localCache.remove(key);
+        } else {
+            localCache.put(key, value, System.nanoTime() + localTtl.toNanos());
+        }
+    }
+
+    private Object localGet(String key) {
+        Object value = localCache.get(key, System.nanoTime());
+        if (value != null) {
+            fallbackHits.increment();
+        }
+        return value;
+    }
+
+    private void replayPendingDeletes() {
+        if (pendingDeletes.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (Iterator<String> iterator = pendingDeletes.iterator(); iterator.hasNext(); ) {
+            keys.add(iterator.next());
+            iterator.remove();
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to replay {} cache evictions, will retry: {}", keys.size(), e.getMessage());
+            queueDeletes(keys);
+        }
+    }
+
+    private void queueDeletes(Collection<String> keys) {
+        if (pendingDeletes.size() + keys.size() <= maxPendingDeletes) {
+            pendingDeletes.addAll(keys);
+        } else {
+            logger.error("Dropping {} cache evictions while Redis is unavailable", keys.size());
+        }
+    }
+
+    // Bounded LRU with per-entry expiry
+    static final class LocalCache {
+
+        private record Entry(Object value, long expiresAt) {
+        }
+
+        private final LinkedHashMap<String, Entry> entries;
+
+        LocalCache(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized Object get(String key, long nowNanos) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - nowNanos <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        synchronized void put(String key, Object value, long expiresAt) {
+            entries.put(key, new Entry(value, expiresAt));
+        }
+
+        synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.ShardMoveDTO;
+import com.example.TicketApp.config.ShardingConfig.ShardDataSources;
+import com.example.TicketApp.config.ShardingProperties;
+import com.example.TicketApp.constants.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Moves one customer (bookings, tickets, replies, summaries and sync tombstones) to another shard:
+// fence the customer on the source, copy into the target and verify the copy, publish the new
+// placement, wait out the grace period, verify again and delete from the source. From the fence
+// on, the source rejects every write for the customer (see V11__customer_fences.sql), so nothing
+// acknowledged there can be deleted with the source rows; such writes fail and are retried against
+// the target once routing has caught up. Moves are queued on the shard-move pool and followed
+// through getMove; finished ones are kept for a day.
+@Service
+@ConditionalOnProperty(name = "ticketapp.sharding.enabled", havingValue = "true")
+public class ShardRebalancerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancerService.class);
+
+    public static final String STATE_QUEUED = "QUEUED";
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_COMPLETED = "COMPLETED";
+    public static final String STATE_FAILED = "FAILED";
+
+    private static final Duration MOVE_RETENTION = Duration.ofDays(1);
+
+    // What moves with a customer, parents first; every placeholder in a where clause is the customer id
+    private static final String CUSTOMER_TICKETS = "SELECT ticket_id FROM tickets WHERE customer_id = ?";
+    private static final List<MovedTable> MOVED_TABLES = List.of(
+            new MovedTable("booking", "booking_id", "user_id = ?"),
+            new MovedTable("tickets", "ticket_id", "customer_id = ?"),
+            new MovedTable("ticket_responses", "response_id", "ticket_id IN (" + CUSTOMER_TICKETS + ")"),
+            new MovedTable("ticket_summary", "ticket_id", "customer_id = ?"),
+            // The customer's own tombstones and the agents' ones for this customer's tickets
+            new MovedTable("sync_tombstones", "tombstone_id", "user_id = ? OR ticket_id IN (" + CUSTOMER_TICKETS + ")"));
+
+    private final ShardDataSources shardDataSources;
+    private final ShardRouter shardRouter;
+    private final UserTicketCacheService userTicketCacheService;
+    private final TicketDetailsCacheService ticketDetailsCacheService;
+    private final ThreadPoolTaskExecutor shardMoveExecutor;
+    private final long moveGraceMs;
+    private final Map<String, ShardMoveDTO> moves = new ConcurrentHashMap<>();
+    private final Set<Long> movingCustomers = ConcurrentHashMap.newKeySet();
+
+    public ShardRebalancerService(ShardDataSources shardDataSources, ShardRouter shardRouter, ShardingProperties shardingProperties,
+                                  UserTicketCacheService userTicketCacheService, TicketDetailsCacheService ticketDetailsCacheService,
+                                  @Qualifier("shardMoveExecutor") ThreadPoolTaskExecutor shardMoveExecutor) {
+        this.shardDataSources = shardDataSources;
+        this.shardRouter = shardRouter;
+        this.userTicketCacheService = userTicketCacheService;
+        this.ticketDetailsCacheService = ticketDetailsCacheService;
+        this.shardMoveExecutor = shardMoveExecutor;
+        this.moveGraceMs = shardingProperties.getMoveGraceMs();
+    }
+
+    // Validates and queues the move, returning its QUEUED status right away
+    public ShardMoveDTO startMove(long customerId, int targetShard) {
+        validateTargetShard(targetShard);
+        if (!movingCustomers.add(customerId)) {
+            throw new IllegalStateException(Constants.MESSAGE_MOVE_IN_PROGRESS);
+        }
+        LocalDateTime retainedAfter = LocalDateTime.now().minus(MOVE_RETENTION);
+        moves.values().removeIf(move -> move.getFinishedAt() != null && move.getFinishedAt().isBefore(retainedAfter));
+
+        ShardMoveDTO queued = new ShardMoveDTO(UUID.randomUUID().toString(), customerId, targetShard, STATE_QUEUED,
+                null, null, null, null);
+        moves.put(queued.getMoveId(), queued);
+        try {
+            shardMoveExecutor.execute(() -> runMove(queued));
+        } catch (TaskRejectedException e) {
+            moves.remove(queued.getMoveId());
+            movingCustomers.remove(customerId);
+            throw new IllegalStateException(Constants.MESSAGE_MOVE_QUEUE_FULL);
+        }
+        return queued;
+    }
+
+    public Optional<ShardMoveDTO> getMove(String moveId) {
+        return Optional.ofNullable(moves.get(moveId));
+    }
+
+    // Each transition stores a new status object, so readers never see one half-updated
+    private void runMove(ShardMoveDTO queued) {
+        String moveId = queued.getMoveId();
+        long customerId = queued.getCustomerId();
+        int targetShard = queued.getTargetShard();
+        LocalDateTime startedAt = LocalDateTime.now();
+        moves.put(moveId, new ShardMoveDTO(moveId, customerId, targetShard, STATE_RUNNING, null, null, startedAt, null));
+        try {
+            int movedTickets = moveCustomer(customerId, targetShard);
+            moves.put(moveId, new ShardMoveDTO(moveId, customerId, targetShard, STATE_COMPLETED, movedTickets, null,
+                    startedAt, LocalDateTime.now()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Move of customer {} to shard {} was interrupted; rows left on the source shard were not deleted",
+                    customerId, targetShard);
+            moves.put(moveId, new ShardMoveDTO(moveId, customerId, targetShard, STATE_FAILED, null,
+                    "Interrupted before the source shard was cleaned up", startedAt, LocalDateTime.now()));
+        } catch (Exception e) {
+            logger.error("Moving customer {} to shard {} failed: {}", customerId, targetShard, e.getMessage(), e);
+            moves.put(moveId, new ShardMoveDTO(moveId, customerId, targetShard, STATE_FAILED, null, e.getMessage(),
+                    startedAt, LocalDateTime.now()));
+        } finally {
+            movingCustomers.remove(customerId);
+        }
+    }
+
+    private void validateTargetShard(int targetShard) {
+        if (targetShard < 0 || targetShard >= shardRouter.shardCount()) {
+            throw new IllegalArgumentException("Unknown shard: " + targetShard);
+        }
+    }
+
+    // Returns the number of tickets moved
+    int moveCustomer(long customerId, int targetShard) throws InterruptedException {
+        validateTargetShard(targetShard);
+        int sourceShard = shardRouter.shardForCustomer(customerId);
+        if (sourceShard == targetShard) {
+            return 0;
+        }
+
+        JdbcTemplate source = new JdbcTemplate(shardDataSources.get(sourceShard));
+        fence(sourceShard, customerId);
+        List<Long> ticketIds;
+        List<List<Map<String, Object>>> copied;
+        try {
+            ticketIds = source.queryForList("SELECT ticket_id FROM tickets WHERE customer_id = ?", Long.class, customerId);
+            // Parents before children so the target's foreign keys hold. A fence left on the target
+            // by an earlier move away from it is lifted in the same transaction.
+            inTransaction(targetShard, target -> {
+                target.update("DELETE FROM customer_fences WHERE customer_id = ?", customerId);
+                for (MovedTable table : MOVED_TABLES) {
+                    copyRows(source, target, table, customerId);
+                }
+            });
+            copied = readRows(source, customerId);
+            verifyCopied(new JdbcTemplate(shardDataSources.get(targetShard)), copied, customerId);
+        } catch (RuntimeException e) {
+            // Nothing points at the target yet, so the customer simply stays where they were
+            inTransaction(sourceShard, jdbcTemplate -> jdbcTemplate.update("DELETE FROM customer_fences WHERE customer_id = ?", customerId));
+            throw e;
+        }
+
+        shardRouter.recordPlacement(customerId, ticketIds, targetShard);
+        userTicketCacheService.evict(List.of(customerId), Collections.emptyList());
+        ticketDetailsCacheService.evict(ticketIds);
+        logger.info("Customer {} moved from shard {} to shard {} with {} tickets", customerId, sourceShard, targetShard, ticketIds.size());
+
+        // Other instances still route to the source until their next directory refresh; the fence
+        // rejects what they send there, so those writes fail and are retried instead of being lost
+        Thread.sleep(moveGraceMs);
+
+        inTransaction(sourceShard, jdbcTemplate -> {
+            // The fence has kept the source unchanged since the copy; checked once more before anything is deleted
+            if (!readRows(jdbcTemplate, customerId).equals(copied)) {
+                throw new IllegalStateException("Customer " + customerId + " changed on shard " + sourceShard +
+                        " after it was copied; nothing was deleted there");
+            }
+            jdbcTemplate.queryForObject("SELECT set_config('ticketapp.shard_move', 'on', true)", String.class);
+            for (int index = MOVED_TABLES.size() - 1; index >= 0; index--) {
+                MovedTable table = MOVED_TABLES.get(index);
+                jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE " + table.where(), table.args(customerId));
+            }
+        });
+        return ticketIds.size();
+    }
+
+    // Rejects further writes for the customer on the shard, then waits out every transaction that
+    // wrote to the customer's rows without seeing the fence; see V11__customer_fences.sql
+    private void fence(int shard, long customerId) {
+        inTransaction(shard, jdbcTemplate -> {
+            jdbcTemplate.update("INSERT INTO customer_fences (customer_id, fenced_at) VALUES (?, now()) ON CONFLICT DO NOTHING",
+                    customerId);
+            jdbcTemplate.queryForList("SELECT user_id FROM users WHERE user_id = ? FOR UPDATE", customerId);
+            for (MovedTable table : MOVED_TABLES) {
+                jdbcTemplate.queryForList("SELECT " + table.key() + " FROM " + table.name() + " WHERE " + table.where() +
+                        " FOR UPDATE", table.args(customerId));
+            }
+        });
+    }
+
+    // Copies the customer's rows over whatever the target already holds for the same keys, so a
+    // leftover from an earlier, failed move cannot survive in place of the current row
+    private void copyRows(JdbcTemplate source, JdbcTemplate target, MovedTable table, long customerId) {
+        List<Map<String, Object>> rows = source.queryForList("SELECT * FROM " + table.name() + " WHERE " + table.where(),
+                table.args(customerId));
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        List<String> updates = columns.stream()
+                .filter(column -> !column.equals(table.key()))
+                .map(column -> column + " = EXCLUDED." + column)
+                .toList();
+        String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", columns) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columns.size(), "?")) + ") ON CONFLICT (" + table.key() + ") DO UPDATE SET " +
+                String.join(", ", updates);
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            batch.add(columns.stream().map(row::get).toArray());
+        }
+        target.batchUpdate(sql, batch);
+    }
+
+    // The customer's rows per moved table, in key order
+    private List<List<Map<String, Object>>> readRows(JdbcTemplate jdbcTemplate, long customerId) {
+        List<List<Map<String, Object>>> rows = new ArrayList<>(MOVED_TABLES.size());
+        for (MovedTable table : MOVED_TABLES) {
+            rows.add(jdbcTemplate.queryForList("SELECT * FROM " + table.name() + " WHERE " + table.where() +
+                    " ORDER BY " + table.key(), table.args(customerId)));
+        }
+        return rows;
+    }
+
+    // Every copied row must be on the target with the same content
+    private void verifyCopied(JdbcTemplate target, List<List<Map<String, Object>>> copied, long customerId) {
+        for (int index = 0; index < MOVED_TABLES.size(); index++) {
+            MovedTable table = MOVED_TABLES.get(index);
+            List<Map<String, Object>> sourceRows = copied.get(index);
+            if (sourceRows.isEmpty()) {
+                continue;
+            }
+            Long[] keys = sourceRows.stream().map(row -> ((Number) row.get(table.key())).longValue()).toArray(Long[]::new);
+            List<Map<String, Object>> targetRows = target.queryForList("SELECT * FROM " + table.name() + " WHERE " +
+                    table.key() + " = ANY (?) ORDER BY " + table.key(), (Object) keys);
+            if (!sourceRows.equals(targetRows)) {
+                throw new IllegalStateException("Shard move of customer " + customerId + " diverged in " + table.name() +
+                        ": " + sourceRows.size() + " rows on the source, " + targetRows.size() + " matching on the target");
+            }
+        }
+    }
+
+    private void inTransaction(int shard, Consumer<JdbcTemplate> work) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shardDataSources.get(shard));
+        new TransactionTemplate(new DataSourceTransactionManager(shardDataSources.get(shard)))
+                .executeWithoutResult(status -> work.accept(jdbcTemplate));
+    }
+
+    private record MovedTable(String name, String key, String where) {
+
+        // The customer id once per placeholder
+        Object[] args(long customerId) {
+            Object[] args = new Object[(int) where.chars().filter(c -> c == '?').count()];
+            Arrays.fill(args, customerId);
+            return args;
+        }
+    }
+}
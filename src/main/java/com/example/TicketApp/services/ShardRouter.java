@@ -0,0 +1,212 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.config.ShardingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// Decides which shard an operation runs on and binds it to the thread for the duration.
+// Customers (with their bookings, tickets and replies) live on one shard, chosen by a hash of
+// the customer id unless shard_directory says the customer was moved. Users are replicated.
+// With sharding disabled there is a single shard and every method simply runs the work.
+@Service
+public class ShardRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    // Each shard's identity columns allocate from their own range of this size; still used by
+    // rows inserted outside Hibernate
+    public static final long ID_RANGE_PER_SHARD = 1_000_000_000_000_000L;
+
+    // Every identity range has to end below bit 62, the generated-id flag: 4 x 10^18 < 2^62,
+    // while a fifth range would read as generated ids and a tenth would overflow a long
+    public static final int MAX_SHARDS = 4;
+
+    public static final String ENTITY_CUSTOMER = "CUSTOMER";
+    public static final String ENTITY_TICKET = "TICKET";
+
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService scatterExecutor;
+
+    // Placement overrides written by the rebalancer; replaced wholesale on refresh
+    private volatile Map<Long, Integer> customerOverrides = Collections.emptyMap();
+    private volatile Map<Long, Integer> ticketOverrides = Collections.emptyMap();
+
+    public ShardRouter(ShardingProperties shardingProperties, PlatformTransactionManager transactionManager,
+                       JdbcTemplate jdbcTemplate) {
+        this.shardCount = shardingProperties.isEnabled() ? shardingProperties.getShards().size() : 1;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.jdbcTemplate = jdbcTemplate;
+        this.scatterExecutor = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount * 4, Thread.ofPlatform().name("shard-scatter-", 0).daemon().factory())
+                : null;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForCustomer(long customerId) {
+        if (!isSharded()) {
+            return 0;
+        }
+        Integer override = customerOverrides.get(customerId);
+        return override != null ? override : Math.floorMod(mix(customerId), shardCount);
+    }
+
+    public int shardForTicket(long ticketId) {
+        if (!isSharded()) {
+            return 0;
+        }
+        Integer override = ticketOverrides.get(ticketId);
+        return override != null ? override : homeShardForId(ticketId);
+    }
+
+    // The shard an id was created on: carried in generated ids, implied by the identity
+    // range for rows inserted before ids were generated in-process
+    public int homeShardForId(long id) {
+        if (TimeOrderedIdGenerator.isGenerated(id)) {
+            return TimeOrderedIdGenerator.shardOf(id) % shardCount;
+        }
+        return (int) Math.floorMod(id / ID_RANGE_PER_SHARD, (long) shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    // Must not be entered from inside a transaction that is bound to a different shard
+    public <T> T inTransaction(int shard, Supplier<T> work) {
+        return onShard(shard, () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    // Reads that touch lazy associations stay on one shard connection until they finish
+    public <T> T inReadOnlyTransaction(int shard, Supplier<T> work) {
+        return onShard(shard, () -> readOnlyTransactionTemplate.execute(status -> work.get()));
+    }
+
+    // Runs the work on every shard in parallel and returns the results in shard order
+    public <T> List<T> onAllShards(IntFunction<T> work) {
+        if (!isSharded()) {
+            return Collections.singletonList(work.apply(0));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, () -> work.apply(target)), scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @Scheduled(fixedDelayString = "${ticketapp.sharding.directory-refresh-ms:30000}")
+    public void refreshDirectory() {
+        if (!isSharded()) {
+            return;
+        }
+        try {
+            Map<Long, Integer> customers = new HashMap<>();
+            Map<Long, Integer> tickets = new HashMap<>();
+            onShard(0, () -> {
+                jdbcTemplate.query("SELECT entity_type, entity_id, shard FROM shard_directory", rs -> {
+                    Map<Long, Integer> target = ENTITY_CUSTOMER.equals(rs.getString(1)) ? customers : tickets;
+                    target.put(rs.getLong(2), rs.getInt(3));
+                });
+                return null;
+            });
+            customerOverrides = customers;
+            ticketOverrides = tickets;
+        } catch (Exception e) {
+            logger.error("Failed to refresh shard directory: {}", e.getMessage());
+        }
+    }
+
+    // Records a customer's new placement on shard 0 and applies it locally right away;
+    // other instances pick it up on their next refresh
+    public void recordPlacement(long customerId, Collection<Long> ticketIds, int shard) {
+        inTransaction(0, () -> {
+            upsertPlacement(ENTITY_CUSTOMER, customerId, shard);
+            for (Long ticketId : ticketIds) {
+                upsertPlacement(ENTITY_TICKET, ticketId, shard);
+            }
+            return null;
+        });
+
+        Map<Long, Integer> customers = new HashMap<>(customerOverrides);
+        customers.put(customerId, shard);
+        Map<Long, Integer> tickets = new HashMap<>(ticketOverrides);
+        for (Long ticketId : ticketIds) {
+            tickets.put(ticketId, shard);
+        }
+        customerOverrides = customers;
+        ticketOverrides = tickets;
+    }
+
+    private void upsertPlacement(String entityType, long entityId, int shard) {
+        jdbcTemplate.update("INSERT INTO shard_directory (entity_type, entity_id, shard) VALUES (?, ?, ?) " +
+                "ON CONFLICT (entity_type, entity_id) DO UPDATE SET shard = EXCLUDED.shard", entityType, entityId, shard);
+    }
+
+    // 64-bit finalizer from MurmurHash3 so sequential customer ids spread evenly
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb3fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+}
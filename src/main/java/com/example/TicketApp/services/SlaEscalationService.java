@@ -0,0 +1,216 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketDeadlineDTO;
+import com.example.TicketApp.DTO.TicketSnapshotDTO;
+import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.UserRespository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Escalates tickets that are still ACTIVE once their category's SLA (counted from createdAt) runs
+// out: the ticket is flagged with escalated_at and handed to another agent (or to any agent when
+// it has none). Timers live in an in-memory timing wheel: armed on startup from ACTIVE, not yet
+// escalated tickets, and afterwards by track() for tickets created or replied to on this instance.
+// The durable state is the tickets table itself. Because track/cancel only reach the local wheel,
+// a periodic sweep reads the overdue tickets from every shard and fires them here too, so a ticket
+// whose instance went away is still escalated within one sweep interval. With several instances
+// more than one may fire the same ticket; the guarded UPDATE lets exactly one of them escalate it.
+@Service
+public class SlaEscalationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaEscalationService.class);
+
+    // A failed escalation (e.g. the shard is down) is retried after this delay
+    private static final long RETRY_DELAY_MS = Duration.ofMinutes(1).toMillis();
+
+    private final TicketRepository ticketRepository;
+    private final UserRespository userRespository;
+    private final TicketSummaryService ticketSummaryService;
+    private final UserTicketCacheService userTicketCacheService;
+    private final TicketDetailsCacheService ticketDetailsCacheService;
+    private final AgentWorkQueueService agentWorkQueueService;
+    private final TicketSyncService ticketSyncService;
+    private final ShardRouter shardRouter;
+    private final Map<Category, Duration> thresholds = new EnumMap<>(Category.class);
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Counter escalations;
+
+    public SlaEscalationService(TicketRepository ticketRepository, UserRespository userRespository,
+                                TicketSummaryService ticketSummaryService, UserTicketCacheService userTicketCacheService,
+                                TicketDetailsCacheService ticketDetailsCacheService, AgentWorkQueueService agentWorkQueueService,
+                                TicketSyncService ticketSyncService, ShardRouter shardRouter, MeterRegistry meterRegistry,
+                                @Value("${ticketapp.sla.prebooking-minutes:1440}") long prebookingMinutes,
+                                @Value("${ticketapp.sla.postbooking-minutes:240}") long postbookingMinutes,
+                                @Value("${ticketapp.sla.tick-ms:1000}") long tickMs) {
+        this.ticketRepository = ticketRepository;
+        this.userRespository = userRespository;
+        this.ticketSummaryService = ticketSummaryService;
+        this.userTicketCacheService = userTicketCacheService;
+        this.ticketDetailsCacheService = ticketDetailsCacheService;
+        this.agentWorkQueueService = agentWorkQueueService;
+        this.ticketSyncService = ticketSyncService;
+        this.shardRouter = shardRouter;
+        this.thresholds.put(Category.PREBOOKING, Duration.ofMinutes(prebookingMinutes));
+        this.thresholds.put(Category.POSTBOOKING, Duration.ofMinutes(postbookingMinutes));
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, System.currentTimeMillis());
+        this.escalations = meterRegistry.counter("ticketapp.sla.escalations");
+        meterRegistry.gauge("ticketapp.sla.timers", wheel, HierarchicalTimingWheel::size);
+    }
+
+    // Called on create and reply; (re)arms the ticket's timer once the transaction commits
+    public void track(Ticket ticket) {
+        if (ticket.getStatus() != Status.ACTIVE || ticket.getEscalatedAt() != null) {
+            return;
+        }
+        long ticketId = ticket.getTicketId();
+        if (ticket.getAgent() == null) {
+            logger.warn("Ticket {} has no agent; its SLA timer will hand it to one on expiry", ticketId);
+        }
+        long deadline = deadline(ticket.getCategory(), ticket.getCreatedAt());
+        afterCommit(() -> wheel.schedule(ticketId, deadline));
+    }
+
+    // Called on resolve; drops the timers by key without touching anything else
+    public void cancel(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(ticketIds);
+        afterCommit(() -> ids.forEach(wheel::cancel));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int loaded = 0;
+        for (List<TicketDeadlineDTO> pending : shardRouter.onAllShards(shard -> ticketRepository.findSlaPending(Status.ACTIVE))) {
+            for (TicketDeadlineDTO ticket : pending) {
+                wheel.schedule(ticket.getTicketId(), deadline(ticket.getCategory(), ticket.getCreatedAt()));
+            }
+            loaded += pending.size();
+        }
+        logger.info("Loaded {} SLA timers", loaded);
+    }
+
+    // Fires every overdue, not yet escalated ticket on every shard, including ones tracked elsewhere
+    @Scheduled(fixedDelayString = "${ticketapp.sla.sweep-interval-ms:60000}",
+            initialDelayString = "${ticketapp.sla.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMs = System.currentTimeMillis();
+        int fired = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                for (Map.Entry<Category, Duration> threshold : thresholds.entrySet()) {
+                    int shardId = shard;
+                    List<Long> overdue = shardRouter.onShard(shardId, () -> ticketRepository.findSlaOverdue(
+                            Status.ACTIVE, threshold.getKey(), now.minus(threshold.getValue())));
+                    overdue.forEach(ticketId -> wheel.schedule(ticketId, nowMs));
+                    fired += overdue.size();
+                }
+            } catch (Exception e) {
+                logger.warn("SLA sweep of shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+        if (fired > 0) {
+            logger.info("SLA sweep found {} overdue tickets", fired);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticketapp.sla.tick-ms:1000}")
+    public void tick() {
+        for (Long ticketId : wheel.advance(System.currentTimeMillis())) {
+            try {
+                if (shardRouter.inTransaction(shardRouter.shardForTicket(ticketId), () -> escalateOnShard(ticketId))) {
+                    escalations.increment();
+                }
+            } catch (Exception e) {
+                logger.warn("Escalating ticket {} failed, retrying later: {}", ticketId, e.getMessage());
+                wheel.schedule(ticketId, System.currentTimeMillis() + RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private boolean escalateOnShard(long ticketId) {
+        List<TicketSnapshotDTO> snapshots = ticketRepository.findSnapshotsByTicketIds(List.of(ticketId));
+        if (snapshots.isEmpty() || snapshots.get(0).getStatus() != Status.ACTIVE) {
+            return false;
+        }
+        TicketSnapshotDTO ticket = snapshots.get(0);
+        Long currentAgentId = ticket.getAgentId();
+        User newAgent = pickOtherAgent(currentAgentId);
+        if (newAgent == null) {
+            logger.warn("Ticket {} breached its SLA but there is no agent to escalate it to", ticketId);
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = currentAgentId == null
+                ? ticketRepository.escalateUnassigned(ticketId, newAgent, Status.ACTIVE, now)
+                : ticketRepository.escalate(ticketId, currentAgentId, newAgent, Status.ACTIVE, now);
+        if (updated == 0) {
+            return false;
+        }
+        ticketSummaryService.recordReassignment(ticketId, newAgent);
+        if (currentAgentId == null) {
+            userTicketCacheService.evict(List.of(ticket.getCustomerId()), List.of(newAgent.getUserId()));
+        } else {
+            if (!newAgent.getUserId().equals(currentAgentId)) {
+                ticketSyncService.recordTicketRemoved(ticketId, currentAgentId);
+            }
+            userTicketCacheService.evict(List.of(ticket.getCustomerId()), List.of(currentAgentId, newAgent.getUserId()));
+            agentWorkQueueService.remove(currentAgentId, ticketId);
+        }
+        ticketDetailsCacheService.evict(List.of(ticketId));
+        agentWorkQueueService.enqueue(newAgent.getUserId(), ticketId, ticket.getCategory(), ticket.getCreatedAt());
+        logger.info("Ticket {} breached its SLA and was escalated from agent {} to agent {}", ticketId, currentAgentId, newAgent.getUserId());
+        return true;
+    }
+
+    // Any other agent; the current one when they are the only agent, so the ticket is still flagged.
+    // An unassigned ticket (currentAgentId null) gets any agent.
+    // Falls back to the current agent when it is the only agent
+    private User pickOtherAgent(Long currentAgentId) {
+        return userRespository.findRandomAgentExcept(currentAgentId != null ? currentAgentId : -1L)
+                .or(() -> currentAgentId != null ? userRespository.findById(currentAgentId.longValue()) : Optional.empty())
+                .orElse(null);
+    }
+
+    private long deadline(Category category, LocalDateTime createdAt) {
+        return createdAt.plus(thresholds.get(category)).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
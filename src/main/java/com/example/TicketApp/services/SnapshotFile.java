@@ -0,0 +1,87 @@
+package com.example.TicketApp.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Single-file binary snapshot written through a memory mapping. Layout:
+//
+//   | int magic | int format version | int payload length | int CRC32 of payload | payload |
+//
+// write() fills a temporary file, forces it and renames it over the target, so a reader sees either
+// the previous snapshot or the complete new one. read() rejects anything with the wrong magic, a
+// different format version, a truncated payload or a bad checksum.
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x534E4150;  // "SNAP"
+    private static final int HEADER_BYTES = 16;
+
+    private SnapshotFile() {
+    }
+
+    // The writer must put exactly payloadBytes bytes into the buffer it is given
+    public static void write(Path file, int formatVersion, int payloadBytes, Consumer<ByteBuffer> writer) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = parent.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_BYTES + payloadBytes);
+            ByteBuffer payload = mapped.slice(HEADER_BYTES, payloadBytes);
+            writer.accept(payload);
+            if (payload.hasRemaining()) {
+                throw new IllegalStateException("Snapshot payload is " + payload.position() + " bytes, expected " + payloadBytes);
+            }
+            mapped.putInt(0, MAGIC);
+            mapped.putInt(4, formatVersion);
+            mapped.putInt(8, payloadBytes);
+            mapped.putInt(12, crc(mapped.slice(HEADER_BYTES, payloadBytes)));
+            mapped.force();
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Returns the validated payload, read-only and positioned at its start
+    public static ByteBuffer read(Path file, int formatVersion) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Snapshot " + file + " is truncated");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Snapshot " + file + " is not a snapshot file");
+            }
+            if (mapped.getInt(4) != formatVersion) {
+                throw new IOException("Snapshot " + file + " has format version " + mapped.getInt(4) + ", expected " + formatVersion);
+            }
+            int payloadBytes = mapped.getInt(8);
+            if (payloadBytes < 0 || HEADER_BYTES + (long) payloadBytes != size) {
+                throw new IOException("Snapshot " + file + " is truncated");
+            }
+            ByteBuffer payload = mapped.slice(HEADER_BYTES, payloadBytes);
+            if (crc(payload.duplicate()) != mapped.getInt(12)) {
+                throw new IOException("Snapshot " + file + " failed its checksum");
+            }
+            return payload.asReadOnlyBuffer();
+        }
+    }
+
+    private static int crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
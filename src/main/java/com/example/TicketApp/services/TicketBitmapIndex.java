@@ -0,0 +1,626 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketIndexRowDTO;
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import com.example.TicketApp.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-process index of compressed bitmaps over ticket ordinals: one bitmap per status, category,
+// agent and customer. Dashboard counts become intersection cardinalities and list pages a descending
+// walk over an intersection, with no database round trip. Ordinals follow createdAt, so the
+// highest ordinals are the newest tickets. The index is built from the tickets table on startup
+// (until then callers fall back to the database) and kept current from the write paths after
+// commit. Writes made by other instances are picked up by a periodic catch-up that reads only the
+// tickets updated since each shard's watermark. A watermark never moves into the last settle-ms
+// (ticketapp.sync.settle-ms, the window TicketSyncService holds back), where a transaction that
+// stamped an earlier updated_at may still be open, so the index is local and may briefly lag; results
+// derived from it must not be put in the shared cache. A full rebuild still runs rarely, to put
+// tickets created elsewhere back into createdAt order.
+//
+// With ticketapp.bitmap-index.snapshot.enabled the index is written to a local snapshot file on
+// shutdown and restored from it on startup instead of rescanning every shard. The watermarks, at
+// most MAX(updated_at) per shard, double as its generation stamp; a restored snapshot is rejected if a shard is
+// now behind its stamp (restored database) or the shard layout changed, and otherwise caught up
+// with the tickets updated since the stamp before it serves traffic.
+@Service
+public class TicketBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketBitmapIndex.class);
+
+    // Rough per-ticket cost of the id -> ordinal HashMap (entry, boxed key and value)
+    private static final long BYTES_PER_ORDINAL_ENTRY = 64;
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    // Presence flag, epoch seconds and nanos of a watermark
+    private static final int TIMESTAMP_BYTES = 1 + Long.BYTES + Integer.BYTES;
+
+    private final ShardRouter shardRouter;
+    private final TicketRepository ticketRepository;
+    private final boolean enabled;
+    private final boolean snapshotEnabled;
+    private final Path snapshotPath;
+    private final Duration snapshotMaxAge;
+    private final Duration catchUpOverlap;
+    private final Duration settle;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null until the first build finishes
+    private State state;
+    // Events committed while a rebuild is loading, replayed onto the new state before it is swapped in
+    private List<Consumer<State>> pendingEvents;
+
+    public TicketBitmapIndex(ShardRouter shardRouter, TicketRepository ticketRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${ticketapp.bitmap-index.enabled:true}") boolean enabled,
+                             @Value("${ticketapp.bitmap-index.snapshot.enabled:false}") boolean snapshotEnabled,
+                             @Value("${ticketapp.bitmap-index.snapshot.path:data/ticket-index.snapshot}") String snapshotPath,
+                             @Value("${ticketapp.bitmap-index.snapshot.max-age-minutes:1440}") long snapshotMaxAgeMinutes,
+                             @Value("${ticketapp.bitmap-index.snapshot.catch-up-overlap-ms:60000}") long catchUpOverlapMs,
+                             @Value("${ticketapp.sync.settle-ms:5000}") long settleMs) {
+        this.shardRouter = shardRouter;
+        this.ticketRepository = ticketRepository;
+        this.enabled = enabled;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.snapshotMaxAge = Duration.ofMinutes(snapshotMaxAgeMinutes);
+        this.catchUpOverlap = Duration.ofMillis(catchUpOverlapMs);
+        this.settle = Duration.ofMillis(settleMs);
+        meterRegistry.gauge("ticketapp.bitmap_index.tickets", this, TicketBitmapIndex::ticketCount);
+        meterRegistry.gauge("ticketapp.bitmap_index.bytes", this, TicketBitmapIndex::sizeInBytes);
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return state != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ticket counts per status for one user, optionally narrowed to a category
+    public Map<Status, Long> countByStatus(long userId, boolean isAgent, Category category) {
+        lock.readLock().lock();
+        try {
+            Map<Status, Long> counts = new EnumMap<>(Status.class);
+            RoaringBitmap tickets = state.ticketsOf(userId, isAgent);
+            if (tickets != null && category != null) {
+                tickets = RoaringBitmap.and(tickets, state.byCategory.get(category));
+            }
+            for (Status status : Status.values()) {
+                counts.put(status, tickets == null ? 0L : RoaringBitmap.andCardinality(tickets, state.byStatus.get(status)));
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ticket ids of one page of a user's tickets, newest first; a null status means all of them
+    public List<Long> findTicketIds(long userId, boolean isAgent, Status status, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Long> ticketIds = new ArrayList<>(limit);
+            RoaringBitmap tickets = state.ticketsOf(userId, isAgent);
+            if (tickets == null || limit <= 0) {
+                return ticketIds;
+            }
+            if (status != null) {
+                tickets = RoaringBitmap.and(tickets, state.byStatus.get(status));
+            }
+            long[] skipped = {0};
+            tickets.forEachDescending(ordinal -> {
+                if (skipped[0] < offset) {
+                    skipped[0]++;
+                    return true;
+                }
+                ticketIds.add(state.ticketIds[ordinal]);
+                return ticketIds.size() < limit;
+            });
+            return ticketIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordTicket(long ticketId, long customerId, Long agentId, Status status, Category category) {
+        afterCommit(state -> state.upsert(ticketId, customerId, agentId, status, category));
+    }
+
+    public void recordStatusChange(Collection<Long> ticketIds, Status status) {
+        List<Long> ids = List.copyOf(ticketIds);
+        afterCommit(state -> ids.forEach(ticketId -> state.setStatus(ticketId, status)));
+    }
+
+    public void recordReassignment(long ticketId, long agentId) {
+        afterCommit(state -> state.setAgent(ticketId, agentId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (enabled && snapshotEnabled && install(this::restore, "restored from " + snapshotPath,
+                "Restoring the ticket bitmap index snapshot failed, building it from the database")) {
+            return;
+        }
+        rebuild();
+    }
+
+    // Picks up tickets written through other instances: only rows updated since each shard's
+    // watermark are read, and the next watermark stays out of the settle window
+    @Scheduled(initialDelayString = "${ticketapp.bitmap-index.catch-up-interval-ms:5000}",
+            fixedDelayString = "${ticketapp.bitmap-index.catch-up-interval-ms:5000}")
+    public synchronized void catchUp() {
+        if (!enabled || !isReady()) {
+            return;
+        }
+        LocalDateTime[] since;
+        lock.readLock().lock();
+        try {
+            since = state.watermarks.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (since.length != shardRouter.shardCount()) {
+            return;
+        }
+        try {
+            // Stamped before the scan, as in load()
+            LocalDateTime[] next = watermarks(shardRouter.onAllShards(shard -> ticketRepository.findMaxUpdatedAt()));
+            List<List<TicketIndexRowDTO>> changed = shardRouter.onAllShards(shard -> since[shard] == null
+                    ? ticketRepository.findIndexRows()
+                    : ticketRepository.findIndexRowsUpdatedSince(since[shard]));
+            List<TicketIndexRowDTO> rows = new ArrayList<>();
+            changed.forEach(rows::addAll);
+            lock.writeLock().lock();
+            try {
+                state.upsertAll(rows);
+                state.watermarks = next;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Catching the ticket bitmap index up failed, retrying next time: {}", e.getMessage());
+        }
+    }
+
+    // Rare full rebuild; catchUp() keeps the index current in between
+    @Scheduled(initialDelayString = "${ticketapp.bitmap-index.rebuild-interval-ms:86400000}",
+            fixedDelayString = "${ticketapp.bitmap-index.rebuild-interval-ms:86400000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        install(this::load, "built", "Building the ticket bitmap index failed, keeping the previous one");
+    }
+
+    // Runs after the web server has stopped taking requests, so the snapshot is the final state
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!enabled || !snapshotEnabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return;
+            }
+            state.writeTo(snapshotPath, System.currentTimeMillis());
+            logger.info("Ticket bitmap index snapshot written: {} tickets to {} in {} ms",
+                    state.size, snapshotPath, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Writing the ticket bitmap index snapshot failed: {}", e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long ticketCount() {
+        lock.readLock().lock();
+        try {
+            return state == null ? 0 : state.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return state == null ? 0 : state.sizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Loads a new state without holding the lock and swaps it in; events committed in the
+    // meantime are replayed onto it first. A null state means the loader declined.
+    private synchronized boolean install(Callable<State> loader, String action, String failureMessage) {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingEvents = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State loaded;
+        try {
+            loaded = loader.call();
+        } catch (Exception e) {
+            logger.warn("{}: {}", failureMessage, e.getMessage());
+            loaded = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (loaded != null) {
+                for (Consumer<State> event : pendingEvents) {
+                    event.accept(loaded);
+                }
+                state = loaded;
+            }
+            pendingEvents = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (loaded == null) {
+            return false;
+        }
+        logger.info("Ticket bitmap index {}: {} tickets, {} agents, {} customers, ~{} KB in {} ms",
+                action, loaded.size, loaded.byAgent.size(), loaded.byCustomer.size(), loaded.sizeInBytes() / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    private State load() {
+        // Stamped before the scan, so whatever the scan misses is updated at or after the stamp
+        LocalDateTime[] watermarks = watermarks(shardRouter.onAllShards(shard -> ticketRepository.findMaxUpdatedAt()));
+        List<TicketIndexRowDTO> rows = new ArrayList<>();
+        for (List<TicketIndexRowDTO> shardRows : shardRouter.onAllShards(shard -> ticketRepository.findIndexRows())) {
+            rows.addAll(shardRows);
+        }
+        State loaded = new State();
+        loaded.upsertAll(rows);
+        loaded.watermarks = watermarks;
+        return loaded;
+    }
+
+    // The newest write per shard, but never later than the settle cutoff: rows stamped after it may
+    // still be joined by open transactions with earlier stamps, so the next catch-up reads them again
+    private LocalDateTime[] watermarks(List<LocalDateTime> maxUpdatedAt) {
+        LocalDateTime until = LocalDateTime.now().minus(settle);
+        LocalDateTime[] watermarks = new LocalDateTime[maxUpdatedAt.size()];
+        for (int shard = 0; shard < watermarks.length; shard++) {
+            LocalDateTime newest = maxUpdatedAt.get(shard);
+            watermarks[shard] = newest == null || newest.isBefore(until) ? newest : until;
+        }
+        return watermarks;
+    }
+
+    private State restore() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            logger.info("No ticket bitmap index snapshot at {}", snapshotPath);
+            return null;
+        }
+        ByteBuffer payload = SnapshotFile.read(snapshotPath, SNAPSHOT_FORMAT_VERSION);
+        long writtenAt = payload.getLong();
+        if (System.currentTimeMillis() - writtenAt > snapshotMaxAge.toMillis()) {
+            logger.info("Ticket bitmap index snapshot at {} is older than {}, ignoring it", snapshotPath, snapshotMaxAge);
+            return null;
+        }
+        LocalDateTime[] stamps = new LocalDateTime[payload.getInt()];
+        for (int shard = 0; shard < stamps.length; shard++) {
+            stamps[shard] = getTimestamp(payload);
+        }
+        if (stamps.length != shardRouter.shardCount()) {
+            logger.info("Ticket bitmap index snapshot covers {} shards, now {}, ignoring it", stamps.length, shardRouter.shardCount());
+            return null;
+        }
+
+        List<LocalDateTime> current = shardRouter.onAllShards(shard -> ticketRepository.findMaxUpdatedAt());
+        for (int shard = 0; shard < stamps.length; shard++) {
+            if (stamps[shard] != null && (current.get(shard) == null || current.get(shard).isBefore(stamps[shard]))) {
+                logger.info("Shard {} is behind the ticket bitmap index snapshot, ignoring it", shard);
+                return null;
+            }
+        }
+
+        State restored = State.readColumns(payload);
+        // Events are idempotent, so the overlap only re-applies rows; it covers transactions that
+        // were still open when the stamp was taken. A shard without a stamp was empty back then.
+        List<List<TicketIndexRowDTO>> changed = shardRouter.onAllShards(shard -> stamps[shard] == null
+                ? ticketRepository.findIndexRows()
+                : ticketRepository.findIndexRowsUpdatedSince(stamps[shard].minus(catchUpOverlap)));
+        List<TicketIndexRowDTO> rows = new ArrayList<>();
+        changed.forEach(rows::addAll);
+        restored.upsertAll(rows);
+        restored.watermarks = watermarks(current);
+        logger.info("Ticket bitmap index snapshot caught up with {} tickets updated since it was taken", rows.size());
+        return restored;
+    }
+
+    private void apply(Consumer<State> event) {
+        lock.writeLock().lock();
+        try {
+            if (state != null) {
+                event.accept(state);
+            }
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Consumer<State> event) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(event);
+                }
+            });
+        } else {
+            apply(event);
+        }
+    }
+
+    // Every event is idempotent, so replaying one the rebuild already read is harmless
+    private static final class State {
+
+        private static final long NO_AGENT = -1;
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private long[] ticketIds = new long[1024];
+        private long[] agentIds = new long[1024];
+        private int size;
+        // MAX(updated_at) per shard when the scan this state came from started; null for an empty shard
+        private LocalDateTime[] watermarks = new LocalDateTime[0];
+        private final Map<Status, RoaringBitmap> byStatus = new EnumMap<>(Status.class);
+        private final Map<Category, RoaringBitmap> byCategory = new EnumMap<>(Category.class);
+        private final Map<Long, RoaringBitmap> byAgent = new HashMap<>();
+        private final Map<Long, RoaringBitmap> byCustomer = new HashMap<>();
+
+        State() {
+            for (Status status : Status.values()) {
+                byStatus.put(status, new RoaringBitmap());
+            }
+            for (Category category : Category.values()) {
+                byCategory.put(category, new RoaringBitmap());
+            }
+        }
+
+        RoaringBitmap ticketsOf(long userId, boolean isAgent) {
+            return (isAgent ? byAgent : byCustomer).get(userId);
+        }
+
+        void upsert(long ticketId, long customerId, Long agentId, Status status, Category category) {
+            Integer existing = ordinals.get(ticketId);
+            if (existing != null) {
+                setStatus(ticketId, status);
+                setAgent(ticketId, agentId == null ? NO_AGENT : agentId);
+                return;
+            }
+            if (size == ticketIds.length) {
+                ticketIds = Arrays.copyOf(ticketIds, size * 2);
+                agentIds = Arrays.copyOf(agentIds, size * 2);
+            }
+            int ordinal = size++;
+            ordinals.put(ticketId, ordinal);
+            ticketIds[ordinal] = ticketId;
+            agentIds[ordinal] = NO_AGENT;
+            byStatus.get(status).add(ordinal);
+            byCategory.get(category).add(ordinal);
+            byCustomer.computeIfAbsent(customerId, id -> new RoaringBitmap()).add(ordinal);
+            setAgent(ticketId, agentId == null ? NO_AGENT : agentId);
+        }
+
+        // New tickets get ordinals in createdAt order. After a catch-up, tickets created by other
+        // instances since the last one can land slightly out of order until the next rebuild.
+        void upsertAll(List<TicketIndexRowDTO> rows) {
+            rows.sort(Comparator.comparing(TicketIndexRowDTO::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(TicketIndexRowDTO::getTicketId));
+            for (TicketIndexRowDTO row : rows) {
+                upsert(row.getTicketId(), row.getCustomerId(), row.getAgentId(), row.getStatus(), row.getCategory());
+            }
+        }
+
+        void setStatus(long ticketId, Status status) {
+            Integer ordinal = ordinals.get(ticketId);
+            if (ordinal == null) {
+                return;
+            }
+            for (Map.Entry<Status, RoaringBitmap> entry : byStatus.entrySet()) {
+                if (entry.getKey() == status) {
+                    entry.getValue().add(ordinal);
+                } else {
+                    entry.getValue().remove(ordinal);
+                }
+            }
+        }
+
+        void setAgent(long ticketId, long agentId) {
+            Integer ordinal = ordinals.get(ticketId);
+            if (ordinal == null || agentIds[ordinal] == agentId) {
+                return;
+            }
+            long previous = agentIds[ordinal];
+            if (previous != NO_AGENT) {
+                RoaringBitmap tickets = byAgent.get(previous);
+                tickets.remove(ordinal);
+                if (tickets.isEmpty()) {
+                    byAgent.remove(previous);
+                }
+            }
+            agentIds[ordinal] = agentId;
+            if (agentId != NO_AGENT) {
+                byAgent.computeIfAbsent(agentId, id -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        long sizeInBytes() {
+            long bytes = ticketIds.length * 8L + agentIds.length * 8L + ordinals.size() * BYTES_PER_ORDINAL_ENTRY;
+            for (RoaringBitmap bitmap : byStatus.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byCategory.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byAgent.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byCustomer.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        }
+
+        // Snapshot payload: write time, per-shard stamps, the status and category names the codes
+        // below refer to, then one column each of ticket ids, customer ids, agent ids (-1 for none),
+        // status codes and category codes, indexed by ordinal
+        void writeTo(Path file, long writtenAt) throws IOException {
+            long[] customerIds = new long[size];
+            byte[] statusCodes = new byte[size];
+            byte[] categoryCodes = new byte[size];
+            byCustomer.forEach((customerId, tickets) -> tickets.forEachDescending(ordinal -> {
+                customerIds[ordinal] = customerId;
+                return true;
+            }));
+            byStatus.forEach((status, tickets) -> tickets.forEachDescending(ordinal -> {
+                statusCodes[ordinal] = (byte) status.ordinal();
+                return true;
+            }));
+            byCategory.forEach((category, tickets) -> tickets.forEachDescending(ordinal -> {
+                categoryCodes[ordinal] = (byte) category.ordinal();
+                return true;
+            }));
+
+            long payloadBytes = Long.BYTES + Integer.BYTES + watermarks.length * TIMESTAMP_BYTES
+                    + namesBytes(Status.values()) + namesBytes(Category.values())
+                    + Integer.BYTES + size * (3L * Long.BYTES + 2);
+            if (payloadBytes > Integer.MAX_VALUE - 64) {
+                throw new IOException("Index of " + size + " tickets is too large for a snapshot");
+            }
+            SnapshotFile.write(file, SNAPSHOT_FORMAT_VERSION, (int) payloadBytes, buffer -> {
+                buffer.putLong(writtenAt);
+                buffer.putInt(watermarks.length);
+                for (LocalDateTime watermark : watermarks) {
+                    putTimestamp(buffer, watermark);
+                }
+                putNames(buffer, Status.values());
+                putNames(buffer, Category.values());
+                buffer.putInt(size);
+                for (int i = 0; i < size; i++) {
+                    buffer.putLong(ticketIds[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    buffer.putLong(customerIds[i]);
+                }
+                for (int i = 0; i < size; i++) {
+                    buffer.putLong(agentIds[i]);
+                }
+                buffer.put(statusCodes);
+                buffer.put(categoryCodes);
+            });
+        }
+
+        // Reads what writeTo wrote after the stamps; an enum constant that no longer exists fails the restore
+        static State readColumns(ByteBuffer buffer) {
+            Status[] statuses = getNames(buffer, Status.class);
+            Category[] categories = getNames(buffer, Category.class);
+            int count = buffer.getInt();
+            int ticketIdsAt = buffer.position();
+            int customerIdsAt = ticketIdsAt + count * Long.BYTES;
+            int agentIdsAt = customerIdsAt + count * Long.BYTES;
+            int statusCodesAt = agentIdsAt + count * Long.BYTES;
+            int categoryCodesAt = statusCodesAt + count;
+
+            State restored = new State();
+            for (int i = 0; i < count; i++) {
+                long agentId = buffer.getLong(agentIdsAt + i * Long.BYTES);
+                restored.upsert(buffer.getLong(ticketIdsAt + i * Long.BYTES), buffer.getLong(customerIdsAt + i * Long.BYTES),
+                        agentId == NO_AGENT ? null : agentId,
+                        statuses[buffer.get(statusCodesAt + i)], categories[buffer.get(categoryCodesAt + i)]);
+            }
+            return restored;
+        }
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        buffer.put((byte) (timestamp == null ? 0 : 1));
+        buffer.putLong(timestamp == null ? 0 : timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp == null ? 0 : timestamp.getNano());
+    }
+
+    private static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        boolean present = buffer.get() != 0;
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return present ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+    }
+
+    private static int namesBytes(Enum<?>[] values) {
+        int bytes = Integer.BYTES;
+        for (Enum<?> value : values) {
+            bytes += Short.BYTES + value.name().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+
+    private static void putNames(ByteBuffer buffer, Enum<?>[] values) {
+        buffer.putInt(values.length);
+        for (Enum<?> value : values) {
+            byte[] name = value.name().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> E[] getNames(ByteBuffer buffer, Class<E> type) {
+        E[] values = (E[]) Array.newInstance(type, buffer.getInt());
+        for (int i = 0; i < values.length; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            values[i] = Enum.valueOf(type, new String(name, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.constants.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Fills a user's dashboard caches (counts per category, first list page per status) right after login
+@Service
+public class TicketCachePrewarmService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketCachePrewarmService.class);
+
+    private final TicketService ticketService;
+    private final UserTicketCacheService userTicketCacheService;
+    private final TicketBitmapIndex ticketBitmapIndex;
+    private final ThreadPoolTaskExecutor prewarmExecutor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public TicketCachePrewarmService(TicketService ticketService, UserTicketCacheService userTicketCacheService,
+                                     TicketBitmapIndex ticketBitmapIndex,
+                                     @Qualifier("prewarmExecutor") ThreadPoolTaskExecutor prewarmExecutor) {
+        this.ticketService = ticketService;
+        this.userTicketCacheService = userTicketCacheService;
+        this.ticketBitmapIndex = ticketBitmapIndex;
+        this.prewarmExecutor = prewarmExecutor;
+    }
+
+    // Never blocks: the work is queued on the prewarm pool, or skipped if the pool is saturated
+    public void prewarmAsync(long userId, String role) {
+        if (!inFlight.add(userId)) {
+            return;  // A prewarm for this user is already queued or running
+        }
+        try {
+            prewarmExecutor.execute(() -> {
+                try {
+                    prewarm(userId, role);
+                } finally {
+                    inFlight.remove(userId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(userId);
+            logger.warn("Prewarm queue full, skipping cache prewarm for userId: {}", userId);
+        }
+    }
+
+    void prewarm(long userId, String role) {
+        // Prewarming only pays off when the results land in Redis; skip it during an outage
+        if (!userTicketCacheService.isAvailable()) {
+            return;
+        }
+        // Dashboards are answered from the local bitmap index, not from the cache, once it is built
+        if (ticketBitmapIndex.isReady()) {
+            return;
+        }
+        try {
+            Map<String, String> countKeys = new LinkedHashMap<>();
+            for (String category : UserTicketCacheService.CATEGORIES) {
+                countKeys.put(userTicketCacheService.buildKey(userId, role, category), category);
+            }
+            Map<String, String> listKeys = new LinkedHashMap<>();
+            for (String status : UserTicketCacheService.STATUSES) {
+                listKeys.put(userTicketCacheService.buildListKey(userId, role, status), status);
+            }
+
+            // One MGET to find what is already warm, then compute only the gaps
+            List<String> keys = new ArrayList<>(countKeys.keySet());
+            keys.addAll(listKeys.keySet());
+            List<Object> cached = userTicketCacheService.getAll(keys);
+
+            Map<String, Object> entries = new LinkedHashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                if (cached.get(i) != null) {
+                    continue;
+                }
+                String key = keys.get(i);
+                if (countKeys.containsKey(key)) {
+                    entries.put(key, ticketService.computeCountsForCache(userId, role, countKeys.get(key)));
+                } else {
+                    entries.put(key, ticketService.computeFilteredTicketsForCache(userId, role, listKeys.get(key),
+                            PageRequest.of(0, Constants.DEFAULT_PAGE_SIZE)));
+                }
+            }
+
+            userTicketCacheService.putAll(entries);
+            logger.debug("Prewarmed {} cache entries for userId: {}", entries.size(), userId);
+        } catch (Exception e) {
+            logger.warn("Cache prewarm failed for userId: {}: {}", userId, e.getMessage());
+        }
+    }
+}
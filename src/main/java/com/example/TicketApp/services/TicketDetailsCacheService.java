@@ -0,0 +1,83 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketSnapshotDTO;
+import com.example.TicketApp.constants.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class TicketDetailsCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketDetailsCacheService.class);
+
+    private final ResilientRedisCache redisCache;
+
+    public TicketDetailsCacheService(ResilientRedisCache redisCache) {
+        this.redisCache = redisCache;
+    }
+
+    public String buildKey(long ticketId) {
+        return Constants.TICKET_DETAILS_CACHE_PREFIX + ticketId;
+    }
+
+    // One MGET for all ids; ids missing from the result were not cached
+    public Map<Long, TicketSnapshotDTO> getAll(List<Long> ticketIds) {
+        Map<Long, TicketSnapshotDTO> snapshots = new HashMap<>();
+        List<String> keys = new ArrayList<>(ticketIds.size());
+        for (Long ticketId : ticketIds) {
+            keys.add(buildKey(ticketId));
+        }
+        List<Object> values = redisCache.multiGet(keys);
+        for (int i = 0; i < ticketIds.size(); i++) {
+            if (values.get(i) instanceof TicketSnapshotDTO snapshot) {
+                snapshots.put(ticketIds.get(i), snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    // Pipelined SETs so a batch of misses costs a single round trip
+    public void putAll(Collection<TicketSnapshotDTO> snapshots) {
+        Map<String, TicketSnapshotDTO> entries = new HashMap<>();
+        for (TicketSnapshotDTO snapshot : snapshots) {
+            entries.put(buildKey(snapshot.getTicketId()), snapshot);
+        }
+        redisCache.setAll(entries, Duration.ofMinutes(Constants.CACHE_TTL));
+    }
+
+    // Inside a transaction the DEL runs after commit so readers cannot re-cache stale details
+    public void evict(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(ticketIds.size());
+        for (Long ticketId : ticketIds) {
+            keys.add(buildKey(ticketId));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteKeys(keys);
+                }
+            });
+        } else {
+            deleteKeys(keys);
+        }
+    }
+
+    private void deleteKeys(List<String> keys) {
+        redisCache.delete(keys);
+    }
+}
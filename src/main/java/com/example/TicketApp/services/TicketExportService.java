@@ -0,0 +1,288 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.constants.Constants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Streams tickets created in [from, to), optionally with their replies, as CSV or NDJSON.
+// Rows come from a forward-only JDBC cursor (the read-only transaction keeps autocommit off,
+// which Postgres needs to honour the fetch size) and are written out as they arrive, so
+// memory stays flat however large the range is and no entities are loaded into Hibernate.
+// Shards are exported one after another, each in created_at order.
+@Service
+public class TicketExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String TICKET_COLUMNS =
+            "t.ticket_id, t.customer_id, t.agent_id, t.booking_id, t.category, t.status, t.description, "
+                    + "t.created_at, t.updated_at, t.resolved_at";
+    private static final String REPLY_COLUMNS =
+            "r.response_id, r.user_id AS reply_user_id, r.role AS reply_role, r.response_text, r.created_at AS reply_created_at";
+
+    private static final String TICKETS_SQL = "SELECT " + TICKET_COLUMNS + " FROM tickets t"
+            + " WHERE t.created_at >= ? AND t.created_at < ?"
+            + " ORDER BY t.created_at, t.ticket_id";
+    // Replies of a ticket arrive on consecutive rows, so each ticket can be closed as soon as the next starts
+    private static final String TICKETS_WITH_REPLIES_SQL = "SELECT " + TICKET_COLUMNS + ", " + REPLY_COLUMNS + " FROM tickets t"
+            + " LEFT JOIN ticket_responses r ON r.ticket_id = t.ticket_id"
+            + " WHERE t.created_at >= ? AND t.created_at < ?"
+            + " ORDER BY t.created_at, t.ticket_id, r.created_at, r.response_id";
+
+    private static final String[] TICKET_HEADER = {"ticket_id", "customer_id", "agent_id", "booking_id", "category",
+            "status", "description", "created_at", "updated_at", "resolved_at"};
+    private static final String[] REPLY_HEADER = {"response_id", "reply_user_id", "reply_role", "response_text",
+            "reply_created_at"};
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+
+    public TicketExportService(ShardRouter shardRouter, JdbcTemplate jdbcTemplate,
+                               @Value("${ticketapp.export.fetch-size:1000}") int fetchSize) {
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly; no separator before the next root object
+        this.jsonFactory.setRootValueSeparator(null);
+    }
+
+    public void export(LocalDateTime from, LocalDateTime to, Format format, boolean includeReplies, OutputStream out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException(Constants.MESSAGE_INVALID_EXPORT_RANGE);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        ExportWriter exportWriter = format == Format.CSV
+                ? new CsvExportWriter(writer, includeReplies)
+                : new NdjsonExportWriter(jsonFactory.createGenerator(writer), includeReplies);
+
+        exportWriter.start();
+        String sql = includeReplies ? TICKETS_WITH_REPLIES_SQL : TICKETS_SQL;
+        try {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.inReadOnlyTransaction(shard, () -> {
+                    jdbcTemplate.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(sql,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        statement.setTimestamp(1, Timestamp.valueOf(from));
+                        statement.setTimestamp(2, Timestamp.valueOf(to));
+                        return statement;
+                    }, (RowCallbackHandler) exportWriter::writeRow);
+                    return null;
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        exportWriter.finish();
+        writer.flush();
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime().toString() : null;
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static String text(Long value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private abstract static class ExportWriter {
+        final boolean includeReplies;
+        private long currentTicketId = -1;
+
+        ExportWriter(boolean includeReplies) {
+            this.includeReplies = includeReplies;
+        }
+
+        void writeRow(ResultSet rs) throws SQLException {
+            try {
+                long ticketId = rs.getLong("ticket_id");
+                boolean newTicket = ticketId != currentTicketId;
+                currentTicketId = ticketId;
+                onRow(rs, newTicket);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void start() throws IOException;
+
+        abstract void onRow(ResultSet rs, boolean newTicket) throws IOException, SQLException;
+
+        abstract void finish() throws IOException;
+    }
+
+    // One line per ticket, or per reply when replies are included (ticket columns repeated,
+    // reply columns empty for tickets without replies)
+    private static final class CsvExportWriter extends ExportWriter {
+        private final Writer writer;
+
+        CsvExportWriter(Writer writer, boolean includeReplies) {
+            super(includeReplies);
+            this.writer = writer;
+        }
+
+        @Override
+        void start() throws IOException {
+            writeFields(TICKET_HEADER, false);
+            if (includeReplies) {
+                writer.write(',');
+                writeFields(REPLY_HEADER, false);
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void onRow(ResultSet rs, boolean newTicket) throws IOException, SQLException {
+            writeFields(new String[] {
+                    rs.getString("ticket_id"), rs.getString("customer_id"), text(nullableLong(rs, "agent_id")),
+                    text(nullableLong(rs, "booking_id")), rs.getString("category"), rs.getString("status"),
+                    rs.getString("description"), timestamp(rs, "created_at"), timestamp(rs, "updated_at"),
+                    timestamp(rs, "resolved_at")}, true);
+            if (includeReplies) {
+                writer.write(',');
+                writeFields(new String[] {
+                        text(nullableLong(rs, "response_id")), text(nullableLong(rs, "reply_user_id")), rs.getString("reply_role"),
+                        rs.getString("response_text"), timestamp(rs, "reply_created_at")}, true);
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void finish() {
+        }
+
+        private void writeFields(String[] values, boolean escape) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                if (escape && needsQuoting(value)) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+        }
+
+        private static boolean needsQuoting(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // One JSON object per line and ticket; replies are nested in a "replies" array
+    private static final class NdjsonExportWriter extends ExportWriter {
+        private final JsonGenerator generator;
+        private boolean ticketOpen;
+
+        NdjsonExportWriter(JsonGenerator generator, boolean includeReplies) {
+            super(includeReplies);
+            this.generator = generator;
+        }
+
+        @Override
+        void start() {
+        }
+
+        @Override
+        void onRow(ResultSet rs, boolean newTicket) throws IOException, SQLException {
+            if (newTicket) {
+                closeTicket();
+                generator.writeStartObject();
+                generator.writeStringField("ticketId", Long.toString(rs.getLong("ticket_id")));
+                generator.writeStringField("customerId", Long.toString(rs.getLong("customer_id")));
+                writeNullableId("agentId", nullableLong(rs, "agent_id"));
+                writeNullableId("bookingId", nullableLong(rs, "booking_id"));
+                generator.writeStringField("category", rs.getString("category"));
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeStringField("description", rs.getString("description"));
+                generator.writeStringField("createdAt", timestamp(rs, "created_at"));
+                generator.writeStringField("updatedAt", timestamp(rs, "updated_at"));
+                generator.writeStringField("resolvedAt", timestamp(rs, "resolved_at"));
+                if (includeReplies) {
+                    generator.writeArrayFieldStart("replies");
+                }
+                ticketOpen = true;
+            }
+            if (includeReplies) {
+                Long responseId = nullableLong(rs, "response_id");
+                if (responseId != null) {
+                    generator.writeStartObject();
+                    generator.writeStringField("responseId", responseId.toString());
+                    generator.writeStringField("userId", Long.toString(rs.getLong("reply_user_id")));
+                    generator.writeStringField("role", rs.getString("reply_role"));
+                    generator.writeStringField("responseText", rs.getString("response_text"));
+                    generator.writeStringField("createdAt", timestamp(rs, "reply_created_at"));
+                    generator.writeEndObject();
+                }
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            closeTicket();
+            generator.flush();
+        }
+
+        private void closeTicket() throws IOException {
+            if (!ticketOpen) {
+                return;
+            }
+            if (includeReplies) {
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            ticketOpen = false;
+        }
+
+        // Ids are written as strings, as in the JSON API, so JavaScript readers do not round them
+        private void writeNullableId(String field, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeStringField(field, value.toString());
+            }
+        }
+    }
+}
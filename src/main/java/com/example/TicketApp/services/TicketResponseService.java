@@ -1,15 +1,20 @@
 package com.example.TicketApp.services;
 
+import com.example.TicketApp.DTO.BulkStatusUpdateRequestDTO;
+import com.example.TicketApp.DTO.BulkStatusUpdateResultDTO;
+import com.example.TicketApp.DTO.TicketOwnershipDTO;
 import com.example.TicketApp.DTO.TicketResponseDTO;
 import com.example.TicketApp.entity.Ticket;
 import com.example.TicketApp.entity.TicketResponse;
 import com.example.TicketApp.entity.User;
+import com.example.TicketApp.enums.Category;
 import com.example.TicketApp.enums.Role;
 import com.example.TicketApp.enums.Status;
 import com.example.TicketApp.repository.TicketRepository;
 import com.example.TicketApp.repository.TicketResponseRepository;
 import com.example.TicketApp.repository.UserRespository;
 import com.example.TicketApp.CustomErrors.BookingNotFoundException;
+import com.example.TicketApp.CustomErrors.ReplyPendingException;
 import com.example.TicketApp.CustomErrors.UserNotAuthorizedException;
 import com.example.TicketApp.CustomErrors.UserNotFoundException;
 import com.example.TicketApp.CustomErrors.UnauthorizedAccessException;
@@ -18,7 +23,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TicketResponseService {
@@ -28,15 +44,50 @@ public class TicketResponseService {
     private final TicketRepository ticketRepository;
     private final TicketResponseRepository ticketResponseRepository;
     private final UserRespository userRespository;
+    private final UserTicketCacheService userTicketCacheService;
+    private final TicketSummaryService ticketSummaryService;
+    private final TicketDetailsCacheService ticketDetailsCacheService;
+    private final ShardRouter shardRouter;
+    private final OptimisticRetryService optimisticRetryService;
+    private final AgentWorkQueueService agentWorkQueueService;
+    private final SlaEscalationService slaEscalationService;
+    private final TicketSyncService ticketSyncService;
+    private final ReplyWriteBehindService replyWriteBehindService;
 
     // Constructor Injection
-    public TicketResponseService(TicketRepository ticketRepository, TicketResponseRepository ticketResponseRepository, UserRespository userRespository) {
+    public TicketResponseService(TicketRepository ticketRepository, TicketResponseRepository ticketResponseRepository, UserRespository userRespository,
+                                 UserTicketCacheService userTicketCacheService, TicketSummaryService ticketSummaryService,
+                                 TicketDetailsCacheService ticketDetailsCacheService, ShardRouter shardRouter,
+                                 OptimisticRetryService optimisticRetryService, AgentWorkQueueService agentWorkQueueService,
+                                 SlaEscalationService slaEscalationService, TicketSyncService ticketSyncService,
+                                 ReplyWriteBehindService replyWriteBehindService) {
         this.ticketRepository = ticketRepository;
         this.ticketResponseRepository = ticketResponseRepository;
         this.userRespository = userRespository;
+        this.userTicketCacheService = userTicketCacheService;
+        this.ticketSummaryService = ticketSummaryService;
+        this.ticketDetailsCacheService = ticketDetailsCacheService;
+        this.shardRouter = shardRouter;
+        this.optimisticRetryService = optimisticRetryService;
+        this.agentWorkQueueService = agentWorkQueueService;
+        this.slaEscalationService = slaEscalationService;
+        this.ticketSyncService = ticketSyncService;
+        this.replyWriteBehindService = replyWriteBehindService;
     }
 
     public TicketResponseDTO createTicketReply(long ticketId, long userId, String role, Map<String, Object> replyData) throws UnauthorizedAccessException {
+        if (replyWriteBehindService.isEnabled()) {
+            // Only validation touches the database; the reply is acknowledged from the local journal
+            return shardRouter.inReadOnlyTransaction(shardRouter.shardForTicket(ticketId),
+                    () -> createTicketReplyOnShard(ticketId, userId, role, replyData, true));
+        }
+        // Adding a reply bumps the ticket's version, so it retries against a concurrent status change
+        return optimisticRetryService.execute("createTicketReply", () -> shardRouter.inTransaction(shardRouter.shardForTicket(ticketId),
+                () -> createTicketReplyOnShard(ticketId, userId, role, replyData, false)));
+    }
+
+    private TicketResponseDTO createTicketReplyOnShard(long ticketId, long userId, String role, Map<String, Object> replyData,
+                                                       boolean writeBehind) {
         // Validate role
         validateRole(role);
 
@@ -63,21 +114,8 @@ public class TicketResponseService {
             throw new UnauthorizedAccessException(Constants.MESSAGE_INVALID_ROLE);
         }
 
-        // Create and save the TicketResponse entity
-        TicketResponse ticketResponse = new TicketResponse();
-        ticketResponse.setTicket(ticket);
-        ticketResponse.setUser(user);
-        ticketResponse.setRole(Role.valueOf(role.toUpperCase())); // Ensure role is valid
-        ticketResponse.setResponseText(replyData.get("responseText").toString());
-
-        // Save the response to the repository
-        TicketResponse savedResponse = ticketResponseRepository.save(ticketResponse);
-
-        // Add the response to the ticket and save the ticket
-        ticket.getResponses().add(savedResponse);
-        ticketRepository.save(ticket);
-
-        // Determine the reply user’s email
+        // Determine the reply user’s email. Resolved before anything is written: a journaled reply
+        // is acknowledged, so nothing after the journal write may reject the request.
         String userEmail = user.getEmail();
         String agentEmail;
 
@@ -99,6 +137,38 @@ public class TicketResponseService {
             agentEmail = agent.getEmail();
         }
 
+        // Create and save the TicketResponse entity
+        TicketResponse ticketResponse = new TicketResponse();
+        ticketResponse.setTicket(ticket);
+        ticketResponse.setUser(user);
+        ticketResponse.setRole(Role.valueOf(role.toUpperCase())); // Ensure role is valid
+        ticketResponse.setResponseText(replyData.get("responseText").toString());
+
+        TicketResponse savedResponse;
+        if (writeBehind) {
+            // A journaled reply is never rejected later, so the column limit is checked up front
+            if (ticketResponse.getResponseText().length() > Constants.REPLY_TEXT_MAX_LENGTH) {
+                throw new IllegalArgumentException(String.format(Constants.MESSAGE_REPLY_TOO_LONG, Constants.REPLY_TEXT_MAX_LENGTH));
+            }
+            savedResponse = replyWriteBehindService.append(ticketResponse, user.getEmail());
+        } else {
+            // Save the response to the repository
+            savedResponse = ticketResponseRepository.save(ticketResponse);
+
+            // Add the response to the ticket and save the ticket
+            ticket.getResponses().add(savedResponse);
+            ticketRepository.save(ticket);
+        }
+
+        // A customer reply puts the ticket back in front of the agent; an agent reply takes it out
+        if (savedResponse.getRole() == Role.CUSTOMER) {
+            agentWorkQueueService.enqueue(ticket);
+        } else if (ticket.getAgent() != null) {
+            agentWorkQueueService.remove(ticket.getAgent().getUserId(), ticketId);
+        }
+        // The SLA runs from creation; this only re-arms a timer this instance may not hold
+        slaEscalationService.track(ticket);
+
         // Map the saved TicketResponse to a TicketResponseDTO and return it
         return new TicketResponseDTO(
                 savedResponse.getResponseId(),
@@ -122,47 +192,57 @@ public class TicketResponseService {
         return false; // Invalid role
     }
 
-    // Update a ticket response
-    public TicketResponse updateTicketResponse(long userId, long ticketId, long responseId, String updateText) {
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(Constants.LOG_USER_NOT_FOUND, userId));
-
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new BookingNotFoundException(Constants.LOG_TICKET_NOT_FOUND, ticketId));
-
-        TicketResponse ticketResponse = ticketResponseRepository.findById(responseId)
-                .orElseThrow(() -> new IllegalArgumentException(Constants.LOG_INVALID_TICKET));
-
-        if (!ticketResponse.getUser().equals(user)) {
-            logger.error(Constants.LOG_USER_NOT_AUTHORIZED_UPDATE);
-            throw new UserNotAuthorizedException(Constants.MESSAGE_USER_NOT_FOUND);
-        }
-
-        ticketResponse.setResponseText(updateText);
-        return ticketResponseRepository.save(ticketResponse);
+    // Update a ticket response with one guarded UPDATE; the row count decides success, 404 or 403
+    public void updateTicketResponse(long userId, long ticketId, long responseId, String updateText) {
+        flushIfPending(ticketId, responseId);
+        shardRouter.inTransaction(shardRouter.shardForTicket(ticketId), () -> {
+            int updated = ticketResponseRepository.updateTextIfAuthor(responseId, ticketId, userId, updateText, LocalDateTime.now());
+            if (updated == 0) {
+                rejectReplyChange(ticketId, responseId, Constants.LOG_USER_NOT_AUTHORIZED_UPDATE);
+            }
+            return null;
+        });
     }
 
-    // Delete a ticket response
+    // Delete a ticket response with one guarded DELETE; the row count decides success, 404 or 403
     public void deleteTicketResponse(long userId, long ticketId, long responseId) {
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(Constants.LOG_USER_NOT_FOUND, userId));
-
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new BookingNotFoundException(Constants.LOG_TICKET_NOT_FOUND, ticketId));
-
-        TicketResponse ticketResponse = ticketResponseRepository.findById(responseId)
-                .orElseThrow(() -> new IllegalArgumentException(Constants.LOG_INVALID_TICKET));
+        flushIfPending(ticketId, responseId);
+        shardRouter.inTransaction(shardRouter.shardForTicket(ticketId), () -> {
+            int deleted = ticketResponseRepository.deleteIfAuthor(responseId, ticketId, userId);
+            if (deleted == 0) {
+                rejectReplyChange(ticketId, responseId, Constants.LOG_USER_NOT_AUTHORIZED_DELETE);
+            }
+            ticketSyncService.recordReplyDeleted(ticketId, responseId);
+            return null;
+        });
+    }
 
-        if (!ticketResponse.getUser().equals(user)) {
-            logger.error(Constants.LOG_USER_NOT_AUTHORIZED_DELETE);
-            throw new UserNotAuthorizedException(Constants.MESSAGE_USER_NOT_FOUND);
+    // A reply still in the write-behind journal has no row to edit yet; push it out first. If the
+    // flush cannot get it out (shard down, checkpoint failing) the caller gets a retryable 503, not a 404.
+    private void flushIfPending(long ticketId, long responseId) {
+        if (replyWriteBehindService.isPending(ticketId, responseId)) {
+            replyWriteBehindService.flush();
+            if (replyWriteBehindService.isPending(ticketId, responseId)) {
+                throw new ReplyPendingException(Constants.LOG_REPLY_PENDING, responseId, ticketId);
+            }
         }
+    }
 
-        ticketResponseRepository.delete(ticketResponse);
+    private void rejectReplyChange(long ticketId, long responseId, String logMessage) {
+        if (!ticketResponseRepository.existsOnTicket(responseId, ticketId)) {
+            throw new BookingNotFoundException(Constants.LOG_REPLY_NOT_FOUND, responseId, ticketId);
+        }
+        logger.error(logMessage);
+        throw new UserNotAuthorizedException(logMessage);
     }
 
     // Update ticket status
     public boolean updateTicketResponseStatus(long userId, long ticketId) {
+        return optimisticRetryService.execute("updateTicketResponseStatus", () -> shardRouter.inTransaction(shardRouter.shardForTicket(ticketId),
+                () -> updateTicketResponseStatusOnShard(userId, ticketId)));
+    }
+
+    private boolean updateTicketResponseStatusOnShard(long userId, long ticketId) {
         // Find the user by ID
         User user = userRespository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(Constants.LOG_USER_NOT_FOUND, userId));
@@ -189,10 +269,142 @@ public class TicketResponseService {
 
         // Save the updated ticket to the database
         ticketRepository.save(ticket);
+        ticketSummaryService.recordStatusChange(ticketId, Status.RESOLVED);
+        userTicketCacheService.evict(ticket.getCustomer(), ticket.getAgent());
+        ticketDetailsCacheService.evict(List.of(ticketId));
+        agentWorkQueueService.remove(userId, ticketId);
+        slaEscalationService.cancel(List.of(ticketId));
 
         return true;
     }
 
+    // Pops the agent's highest-priority waiting ticket from Redis; the user comes from the
+    // second-level cache, so a warm claim does not reach Postgres
+    public AgentWorkQueueService.ClaimedTicket claimNextTicket(long userId) {
+        User user = userRespository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(Constants.LOG_USER_NOT_FOUND, userId));
+
+        if (user.getRole() != Role.AGENT) {
+            logger.error(Constants.LOG_ACCESS_DENIED);
+            throw new UserNotAuthorizedException(Constants.MESSAGE_INVALID_ROLE);
+        }
+        return agentWorkQueueService.claimNext(userId);
+    }
+
+    // Resolve many tickets of one agent with a single guarded UPDATE per shard
+    public List<BulkStatusUpdateResultDTO> bulkUpdateTicketStatus(long userId, BulkStatusUpdateRequestDTO request) {
+        User user = userRespository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(Constants.LOG_USER_NOT_FOUND, userId));
+
+        if (user.getRole() != Role.AGENT) {
+            logger.error(Constants.LOG_ACCESS_DENIED);
+            throw new UserNotAuthorizedException(Constants.MESSAGE_INVALID_ROLE);
+        }
+
+        // Either the explicit ids (deduplicated, request order kept) or the agent's active tickets matching the filter
+        List<Long> ticketIds;
+        if (request.getTicketIds() != null && !request.getTicketIds().isEmpty()) {
+            ticketIds = new ArrayList<>(new LinkedHashSet<>(request.getTicketIds()));
+        } else {
+            LocalDateTime createdBefore = request.getCreatedBefore() != null ? request.getCreatedBefore() : LocalDateTime.now();
+            Category category = parseCategory(request.getCategory());
+            ticketIds = new ArrayList<>();
+            for (List<Long> shardIds : shardRouter.onAllShards(shard -> ticketRepository.findTicketIdsForAgent(userId, Status.ACTIVE, category, createdBefore))) {
+                ticketIds.addAll(shardIds);
+            }
+        }
+
+        if (ticketIds.size() > Constants.BULK_UPDATE_MAX_TICKETS) {
+            throw new IllegalArgumentException(String.format(Constants.MESSAGE_BULK_LIMIT_EXCEEDED, Constants.BULK_UPDATE_MAX_TICKETS));
+        }
+        if (ticketIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Each shard resolves its own tickets in its own transaction; ids no shard owns stay NOT_FOUND
+        Map<Long, String> outcomes = new HashMap<>();
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long ticketId : ticketIds) {
+            idsByShard.computeIfAbsent(shardRouter.shardForTicket(ticketId), shard -> new ArrayList<>()).add(ticketId);
+        }
+        idsByShard.forEach((shard, shardIds) ->
+                outcomes.putAll(shardRouter.inTransaction(shard, () -> resolveTicketsOnShard(userId, shardIds))));
+
+        List<BulkStatusUpdateResultDTO> results = new ArrayList<>(ticketIds.size());
+        for (Long ticketId : ticketIds) {
+            results.add(new BulkStatusUpdateResultDTO(ticketId, outcomes.getOrDefault(ticketId, Constants.OUTCOME_NOT_FOUND)));
+        }
+        return results;
+    }
+
+    private Map<Long, String> resolveTicketsOnShard(long userId, List<Long> ticketIds) {
+        Map<Long, String> outcomes = new HashMap<>();
+        List<Long> resolvableIds = new ArrayList<>();
+        classify(userId, ticketIds, outcomes, resolvableIds);
+        if (resolvableIds.isEmpty()) {
+            return outcomes;
+        }
+
+        // Outcomes and every derived write follow the rows the UPDATE actually changed: a ticket
+        // escalated, reassigned or resolved since the read above is classified again from a fresh read
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ticketRepository.updateStatusForAgent(userId, resolvableIds, Status.RESOLVED, now);
+        List<TicketOwnershipDTO> resolved = ticketRepository.findUpdatedByAgentAt(userId, resolvableIds, Status.RESOLVED, now);
+        List<Long> resolvedIds = resolved.stream().map(TicketOwnershipDTO::getTicketId).toList();
+        Set<Long> affectedCustomers = resolved.stream().map(TicketOwnershipDTO::getCustomerId).collect(Collectors.toSet());
+        resolvedIds.forEach(ticketId -> outcomes.put(ticketId, Constants.OUTCOME_RESOLVED));
+
+        List<Long> missed = new ArrayList<>(resolvableIds);
+        missed.removeAll(new HashSet<>(resolvedIds));
+        if (!missed.isEmpty()) {
+            List<Long> openAgain = new ArrayList<>();
+            classify(userId, missed, outcomes, openAgain);
+            // Skipped by the UPDATE yet open for this agent now: it changed hands or was reopened in
+            // between, so it was not resolved by this request
+            openAgain.forEach(ticketId -> outcomes.put(ticketId, Constants.OUTCOME_ALREADY_RESOLVED));
+        }
+        logger.info("Agent {} resolved {} of {} tickets on this shard", userId, resolvedIds.size(), ticketIds.size());
+
+        if (!resolvedIds.isEmpty()) {
+            ticketSummaryService.recordStatusChange(resolvedIds, Status.RESOLVED);
+            userTicketCacheService.evict(affectedCustomers, Set.of(userId));
+            ticketDetailsCacheService.evict(resolvedIds);
+            agentWorkQueueService.remove(userId, resolvedIds);
+            slaEscalationService.cancel(resolvedIds);
+        }
+        return outcomes;
+    }
+
+    // Outcome per ticket from its current owner and status; the ones this agent may resolve are
+    // collected in `resolvable` (outcome still unset) for the caller to attempt
+    private void classify(long userId, List<Long> ticketIds, Map<Long, String> outcomes, List<Long> resolvable) {
+        Map<Long, TicketOwnershipDTO> ownership = ticketRepository.findOwnershipByTicketIds(ticketIds).stream()
+                .collect(Collectors.toMap(TicketOwnershipDTO::getTicketId, Function.identity()));
+        for (Long ticketId : ticketIds) {
+            TicketOwnershipDTO owner = ownership.get(ticketId);
+            if (owner == null) {
+                outcomes.put(ticketId, Constants.OUTCOME_NOT_FOUND);
+            } else if (owner.getAgentId() == null || owner.getAgentId() != userId) {
+                outcomes.put(ticketId, Constants.OUTCOME_FORBIDDEN);
+            } else if (owner.getStatus() == Status.RESOLVED) {
+                outcomes.put(ticketId, Constants.OUTCOME_ALREADY_RESOLVED);
+            } else {
+                resolvable.add(ticketId);
+            }
+        }
+    }
+
+    private Category parseCategory(String category) {
+        if (category == null || category.equalsIgnoreCase(Constants.STATUS_ALL)) {
+            return null;
+        }
+        try {
+            return Category.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid category: " + category);
+        }
+    }
+
     // Helper method: Validate role
     private void validateRole(String role) {
         if (role == null || (!role.equalsIgnoreCase(Constants.ROLE_AGENT) && !role.equalsIgnoreCase(Constants.ROLE_CUSTOMER))) {
@@ -205,12 +417,12 @@ public class TicketResponseService {
     private void validateAuthorization(Ticket ticket, User user, String role) {
         if (Constants.ROLE_AGENT.equalsIgnoreCase(role)) {
             if (ticket.getAgent() == null || !ticket.getAgent().equals(user)) {
-                logger.error(Constants.LOG_USER_NOT_AUTHORIZED, role);
+                logger.error(Constants.LOG_REPLY_ROLE_NOT_AUTHORIZED, role);
                 throw new UserNotAuthorizedException(Constants.MESSAGE_USER_NOT_FOUND);
             }
         } else if (Constants.ROLE_CUSTOMER.equalsIgnoreCase(role)) {
             if (ticket.getCustomer() == null || !ticket.getCustomer().equals(user)) {
-                logger.error(Constants.LOG_USER_NOT_AUTHORIZED, role);
+                logger.error(Constants.LOG_REPLY_ROLE_NOT_AUTHORIZED, role);
                 throw new UserNotAuthorizedException(Constants.MESSAGE_USER_NOT_FOUND);
             }
         }
@@ -8,6 +8,7 @@ import com.example.TicketApp.constants.Constants;
 import com.example.TicketApp.entity.Booking;
 import com.example.TicketApp.entity.Ticket;
 import com.example.TicketApp.entity.TicketResponse;
+import com.example.TicketApp.entity.TicketSummary;
 import com.example.TicketApp.entity.User;
 import com.example.TicketApp.enums.Category;
 import com.example.TicketApp.enums.Role;
@@ -15,17 +16,17 @@ import com.example.TicketApp.enums.Status;
 import com.example.TicketApp.repository.BookingRespository;
 import com.example.TicketApp.repository.TicketRepository;
 import com.example.TicketApp.repository.TicketResponseRepository;
+import com.example.TicketApp.repository.TicketSummaryRepository;
 import com.example.TicketApp.repository.UserRespository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 
 import org.springframework.data.domain.*;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,15 +40,38 @@ public class TicketService {
     private final TicketRepository ticketRepository;
     private final TicketResponseRepository ticketResponseRepository;
     private final BookingRespository bookingRespository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final TicketSummaryRepository ticketSummaryRepository;
+    private final UserTicketCacheService userTicketCacheService;
+    private final TicketSummaryService ticketSummaryService;
+    private final TicketDetailsCacheService ticketDetailsCacheService;
+    private final ShardRouter shardRouter;
+    private final AgentWorkQueueService agentWorkQueueService;
+    private final SlaEscalationService slaEscalationService;
+    private final TicketBitmapIndex ticketBitmapIndex;
+    private final ReplyWriteBehindService replyWriteBehindService;
+    private final SingleFlight<TicketPageKey, TicketPage> ticketPageFlight;
 
     public TicketService(UserRespository userRespository, TicketRepository ticketRepository, TicketResponseRepository ticketResponseRepository,
-                         BookingRespository bookingRespository, RedisTemplate<String, Object> redisTemplate) {
+                         BookingRespository bookingRespository, TicketSummaryRepository ticketSummaryRepository,
+                         UserTicketCacheService userTicketCacheService, TicketSummaryService ticketSummaryService,
+                         TicketDetailsCacheService ticketDetailsCacheService, ShardRouter shardRouter,
+                         AgentWorkQueueService agentWorkQueueService, SlaEscalationService slaEscalationService,
+                         TicketBitmapIndex ticketBitmapIndex, ReplyWriteBehindService replyWriteBehindService,
+                         MeterRegistry meterRegistry) {
         this.userRespository = userRespository;
         this.ticketRepository = ticketRepository;
         this.ticketResponseRepository = ticketResponseRepository;
         this.bookingRespository = bookingRespository;
-        this.redisTemplate = redisTemplate;
+        this.ticketSummaryRepository = ticketSummaryRepository;
+        this.userTicketCacheService = userTicketCacheService;
+        this.ticketSummaryService = ticketSummaryService;
+        this.ticketDetailsCacheService = ticketDetailsCacheService;
+        this.shardRouter = shardRouter;
+        this.agentWorkQueueService = agentWorkQueueService;
+        this.slaEscalationService = slaEscalationService;
+        this.ticketBitmapIndex = ticketBitmapIndex;
+        this.replyWriteBehindService = replyWriteBehindService;
+        this.ticketPageFlight = new SingleFlight<>("searchTicket", meterRegistry);
     }
 
     public Map<String, Long> getCountActiveResolved(long userId, String role, String category) {
@@ -56,62 +80,99 @@ public class TicketService {
             throw new IllegalArgumentException(Constants.MESSAGE_INVALID_ROLE);
         }
 
-        List<Ticket> tickets = ticketRepository.findAll();
-        // Generate cache key (including category)
-        String cacheKey = Constants.CACHE_KEY_PREFIX + userId + "::" + role.toUpperCase() + "::" + category + "::" + tickets.size();
+        // The index is local to this instance and may lag writes made through others, so what it
+        // answers stays out of the shared cache
+        if (ticketBitmapIndex.isReady()) {
+            return computeCounts(userId, role, category, true);
+        }
+
+        // Generate cache key (including category); writes evict it through UserTicketCacheService
+        String cacheKey = userTicketCacheService.buildKey(userId, role, category);
 
         // Try to get cached result
-        Map<String, Long> cachedResult = (Map<String, Long>) redisTemplate.opsForValue().get(cacheKey);
+        Map<String, Long> cachedResult = userTicketCacheService.get(cacheKey);
         if (cachedResult != null) {
             return cachedResult;
         }
 
         // Cache miss - compute fresh result
-        tickets = tickets.stream()
-                .filter(ticket -> {
-                    // Filter by userId and role
-                    boolean isUserMatch = (role.equalsIgnoreCase(Constants.ROLE_AGENT) && ticket.getAgent() != null && ticket.getAgent().getUserId() == userId) ||
-                            (role.equalsIgnoreCase(Constants.ROLE_CUSTOMER) && ticket.getCustomer() != null && ticket.getCustomer().getUserId() == userId);
+        Map<String, Long> counts = computeCounts(userId, role, category, false);
 
-                    // Filter by category
-                    boolean isCategoryMatch = category != null  &&  category.equalsIgnoreCase(Constants.STATUS_ALL) || category.equalsIgnoreCase(String.valueOf(ticket.getCategory()));
+        // Cache the result with TTL
+        userTicketCacheService.put(cacheKey, counts);
 
-                    return isUserMatch && isCategoryMatch;
-                })
-                .collect(Collectors.toList());
+        return counts;
+    }
 
-        long activeCount = tickets.stream()
-                .filter(ticket -> ticket.getStatus() == Status.ACTIVE)
-                .count();
+    // Answered by the bitmap index once it is built, otherwise aggregated from the ticket_summary
+    // read model (one grouped index scan); bypasses the cache either way.
+    // A customer's tickets sit on one shard; an agent's are spread over all of them and summed.
+    public Map<String, Long> computeCounts(long userId, String role, String category) {
+        return computeCounts(userId, role, category, ticketBitmapIndex.isReady());
+    }
 
-        long resolvedCount = tickets.stream()
-                .filter(ticket -> ticket.getStatus() == Status.RESOLVED)
-                .count();
+    // The read model only, for results that go into the shared cache
+    Map<String, Long> computeCountsForCache(long userId, String role, String category) {
+        return computeCounts(userId, role, category, false);
+    }
+
+    private Map<String, Long> computeCounts(long userId, String role, String category, boolean useIndex) {
+        Category categoryFilter = parseCategory(category);
+        if (useIndex) {
+            Map<Status, Long> indexed = ticketBitmapIndex.countByStatus(userId, role.equalsIgnoreCase(Constants.ROLE_AGENT), categoryFilter);
+            Map<String, Long> counts = new HashMap<>();
+            counts.put(Constants.STATUS_ACTIVE, indexed.get(Status.ACTIVE));
+            counts.put(Constants.STATUS_RESOLVED, indexed.get(Status.RESOLVED));
+            return counts;
+        }
+
+        List<Object[]> rows;
+        if (role.equalsIgnoreCase(Constants.ROLE_AGENT)) {
+            rows = new ArrayList<>();
+            for (List<Object[]> shardRows : shardRouter.onAllShards(shard -> ticketSummaryRepository.countByAgentGroupByStatus(userId, categoryFilter))) {
+                rows.addAll(shardRows);
+            }
+        } else {
+            rows = shardRouter.onShard(shardRouter.shardForCustomer(userId),
+                    () -> ticketSummaryRepository.countByCustomerGroupByStatus(userId, categoryFilter));
+        }
+
+        long activeCount = 0;
+        long resolvedCount = 0;
+        for (Object[] row : rows) {
+            if (row[0] == Status.ACTIVE) {
+                activeCount += (Long) row[1];
+            } else if (row[0] == Status.RESOLVED) {
+                resolvedCount += (Long) row[1];
+            }
+        }
 
         Map<String, Long> counts = new HashMap<>();
         counts.put(Constants.STATUS_ACTIVE, activeCount);
         counts.put(Constants.STATUS_RESOLVED, resolvedCount);
 
-        // Cache the result with TTL
-        redisTemplate.opsForValue().set(cacheKey, counts, Duration.ofMinutes(Constants.CACHE_TTL));
-
         return counts;
     }
 
     public Map<String, Object> searchTicket(long userId, long ticketId, int page, int size) {
-        Map<String, Object> responseMap = new HashMap<>();
-
-        // Validate and retrieve the user
+        // Validate and retrieve the user (served from the second-level cache when warm)
         User user = userRespository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(String.format(Constants.LOG_USER_NOT_FOUND, userId)));
 
-        // Validate and retrieve the ticket
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new BookingNotFoundException(String.format(Constants.LOG_TICKET_NOT_FOUND, ticketId)));
+        // Journal and stored check before the stored page: a reply flushed in between is then seen
+        // twice (dropped by id below) rather than not at all
+        List<ReplyWriteBehindService.PendingReply> journaled = replyWriteBehindService.pendingReplies(ticketId);
+        Set<Long> storedIds = storedResponseIds(ticketId, journaled);
+
+        // Concurrent readers of the same ticket page share one fetch; the result holds no caller-specific data
+        TicketPage ticketPage = ticketPageFlight.execute(new TicketPageKey(ticketId, page, size),
+                () -> shardRouter.inReadOnlyTransaction(shardRouter.shardForTicket(ticketId),
+                        () -> loadTicketPage(ticketId, page, size)));
+        TicketSnapshotDTO ticket = ticketPage.ticket();
 
-        // Validate ticket ownership or association (Customer or Agent)
-        if (!ticket.getCustomer().equals(user) && (ticket.getAgent() == null || !ticket.getAgent().equals(user))) {
-            throw new UserNotAuthorizedException(String.format(Constants.LOG_USER_NOT_AUTHORIZED, userId, ticketId));
+        // Validate ticket ownership or association (Customer or Agent), per caller
+        if (!isParticipant(ticket, userId)) {
+            throw new UserNotAuthorizedException(String.format(Constants.LOG_USER_NOT_AUTHORIZED_TICKET, userId, ticketId));
         }
 
         // Map the ticket fields into the response
@@ -122,21 +183,18 @@ public class TicketService {
         ticketDetails.put("time", ticket.getCreatedAt());
         ticketDetails.put("description", ticket.getDescription());
 
-        // Create a Pageable object for pagination
-        Pageable pageable = PageRequest.of(page, size);
-
-        // Fetch paginated responses directly from the repository
-        Page<TicketResponse> paginatedResponsePage = ticketResponseRepository.findByTicketId(ticketId, pageable);
-
-        // Get the content of the paginated responses
-        List<TicketResponse> paginatedResponses = paginatedResponsePage.getContent();
+        // Replies still waiting in the write-behind journal are newer than every stored one: they add
+        // to the count and continue the stored list on the pages after it
+        List<TicketResponse> unflushed = unflushedReplies(ticketId, journaled, storedIds);
+        List<TicketResponse> responses = new ArrayList<>(ticketPage.responses());
+        Set<Long> onPage = responses.stream().map(TicketResponse::getResponseId).collect(Collectors.toSet());
+        pendingSlice(unflushed, ticketPage.totalResponses(), page, size).stream()
+                .filter(reply -> !onPage.contains(reply.getResponseId()))
+                .forEach(responses::add);
+        int totalPages = totalPages(ticketPage.totalResponses() + unflushed.size(), size);
 
-        // Calculate total responses for pagination
-        long totalResponses = paginatedResponsePage.getTotalElements();
-        int totalPages = paginatedResponsePage.getTotalPages();
-
-        // Map the paginated responses to DTOs
-        List<TicketResponseDTO> mergedDTOs = mapResponsesToDTOs(paginatedResponses, ticket, user);
+        // Map the paginated responses to DTOs, oriented for this caller
+        List<TicketResponseDTO> mergedDTOs = mapResponsesToDTOs(responses, ticket, user);
 
         // Add ticket details, responses, and total pages to the response map
         ticketDetails.put("responses", mergedDTOs);
@@ -145,24 +203,220 @@ public class TicketService {
         return ticketDetails;
     }
 
-    private List<TicketResponseDTO> mapResponsesToDTOs(List<TicketResponse> responses, Ticket ticket, User user) {
+    private TicketPage loadTicketPage(long ticketId, int page, int size) {
+        // Ticket header from the details cache, falling back to one projection query
+        TicketSnapshotDTO ticket = ticketDetailsCacheService.getAll(List.of(ticketId)).get(ticketId);
+        if (ticket == null) {
+            List<TicketSnapshotDTO> loaded = ticketRepository.findSnapshotsByTicketIds(List.of(ticketId));
+            if (loaded.isEmpty()) {
+                throw new BookingNotFoundException(String.format(Constants.LOG_TICKET_NOT_FOUND, ticketId));
+            }
+            ticket = loaded.get(0);
+            ticketDetailsCacheService.putAll(loaded);
+        }
+
+        // Fetch paginated responses directly from the repository
+        Page<TicketResponse> paginatedResponsePage = ticketResponseRepository.findByTicketId(ticketId, PageRequest.of(page, size));
+        return new TicketPage(ticket, paginatedResponsePage.getContent(), paginatedResponsePage.getTotalElements());
+    }
+
+    // Which of the journaled replies are already stored, i.e. flushed after the journal was read
+    private Set<Long> storedResponseIds(long ticketId, List<ReplyWriteBehindService.PendingReply> journaled) {
+        if (journaled.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> responseIds = journaled.stream().map(ReplyWriteBehindService.PendingReply::responseId).toList();
+        return new HashSet<>(shardRouter.onShard(shardRouter.shardForTicket(ticketId),
+                () -> ticketResponseRepository.findStoredResponseIds(responseIds)));
+    }
+
+    // The journaled replies the stored count does not include yet, oldest first
+    private List<TicketResponse> unflushedReplies(long ticketId, List<ReplyWriteBehindService.PendingReply> journaled,
+                                                  Set<Long> storedIds) {
+        return journaled.stream()
+                .filter(reply -> reply.ticketId() == ticketId && !storedIds.contains(reply.responseId()))
+                .map(ReplyWriteBehindService.PendingReply::toResponse)
+                .toList();
+    }
+
+    // The part of the unflushed replies that lands on this page when they follow `storedTotal` stored ones
+    private static <T> List<T> pendingSlice(List<T> unflushed, long storedTotal, int page, int size) {
+        long from = Math.max(0, (long) page * size - storedTotal);
+        long to = Math.min(unflushed.size(), (long) page * size + size - storedTotal);
+        return from < to ? unflushed.subList((int) from, (int) to) : List.of();
+    }
+
+    private static int totalPages(long totalResponses, int size) {
+        return size <= 0 ? 0 : (int) ((totalResponses + size - 1) / size);
+    }
+
+    private record TicketPageKey(long ticketId, int page, int size) {
+    }
+
+    private record TicketPage(TicketSnapshotDTO ticket, List<TicketResponse> responses, long totalResponses) {
+    }
+
+    // Batch form of searchTicket for inbox views: one MGET over cached ticket headers, one IN query
+    // for the misses and one windowed query for every ticket's reply page. Results keep request order.
+    public List<Map<String, Object>> searchTickets(long userId, List<Long> ticketIds, int page, int size) {
+        if (ticketIds == null || ticketIds.isEmpty()) {
+            throw new IllegalArgumentException(Constants.MESSAGE_TICKET_IDS_REQUIRED);
+        }
+        if (ticketIds.size() > Constants.BATCH_SEARCH_MAX_TICKETS) {
+            throw new IllegalArgumentException(String.format(Constants.MESSAGE_BATCH_LIMIT_EXCEEDED, Constants.BATCH_SEARCH_MAX_TICKETS));
+        }
+
+        User user = userRespository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(String.format(Constants.LOG_USER_NOT_FOUND, userId)));
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ticketIds));
+        Map<Long, TicketSnapshotDTO> snapshots = ticketDetailsCacheService.getAll(distinctIds);
+
+        List<Long> missingIds = new ArrayList<>();
+        for (Long ticketId : distinctIds) {
+            if (!snapshots.containsKey(ticketId)) {
+                missingIds.add(ticketId);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            List<TicketSnapshotDTO> loaded = new ArrayList<>();
+            groupByShard(missingIds).forEach((shard, ids) ->
+                    loaded.addAll(shardRouter.onShard(shard, () -> ticketRepository.findSnapshotsByTicketIds(ids))));
+            for (TicketSnapshotDTO snapshot : loaded) {
+                snapshots.put(snapshot.getTicketId(), snapshot);
+            }
+            ticketDetailsCacheService.putAll(loaded);
+        }
+
+        // Same ownership rule as searchTicket: the caller must be the ticket's customer or agent
+        List<Long> authorizedIds = new ArrayList<>();
+        for (TicketSnapshotDTO snapshot : snapshots.values()) {
+            if (isParticipant(snapshot, userId)) {
+                authorizedIds.add(snapshot.getTicketId());
+            }
+        }
+
+        // Journal first, then which journaled replies are stored, then the stored pages and counts (see searchTicket)
+        Map<Long, List<ReplyWriteBehindService.PendingReply>> journaledByTicket = new HashMap<>();
+        List<Long> journaledIds = new ArrayList<>();
+        for (Long ticketId : authorizedIds) {
+            List<ReplyWriteBehindService.PendingReply> journaled = replyWriteBehindService.pendingReplies(ticketId);
+            if (!journaled.isEmpty()) {
+                journaledByTicket.put(ticketId, journaled);
+                journaled.forEach(reply -> journaledIds.add(reply.responseId()));
+            }
+        }
+
+        Map<Long, List<TicketResponseDTO>> responsesByTicket = new HashMap<>();
+        Map<Long, Long> totalsByTicket = new HashMap<>();
+        List<Object[]> responseRows = new ArrayList<>();
+        List<Object[]> totalRows = new ArrayList<>();
+        Set<Long> storedIds = new HashSet<>();
+        groupByShard(authorizedIds).forEach((shard, ids) -> shardRouter.onShard(shard, () -> {
+            if (!journaledIds.isEmpty()) {
+                storedIds.addAll(ticketResponseRepository.findStoredResponseIds(journaledIds));
+            }
+            responseRows.addAll(ticketResponseRepository.findResponsePagesByTicketIds(ids, page * size, size));
+            // Counted separately so a page past the end still reports the real page count
+            totalRows.addAll(ticketResponseRepository.countResponsesByTicketIds(ids));
+            return null;
+        }));
+        for (Object[] row : responseRows) {
+            Long ticketId = ((Number) row[1]).longValue();
+            TicketSnapshotDTO snapshot = snapshots.get(ticketId);
+            responsesByTicket.computeIfAbsent(ticketId, id -> new ArrayList<>())
+                    .add(mapResponseRowToDTO(row, snapshot, user));
+        }
+        for (Object[] row : totalRows) {
+            totalsByTicket.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(ticketIds.size());
+        for (Long ticketId : ticketIds) {
+            TicketSnapshotDTO snapshot = snapshots.get(ticketId);
+            Map<String, Object> ticketDetails = new HashMap<>();
+            ticketDetails.put("ticketId", ticketId);
+            if (snapshot == null) {
+                ticketDetails.put("error", Constants.MESSAGE_TICKET_NOT_FOUND);
+            } else if (!isParticipant(snapshot, userId)) {
+                ticketDetails.put("error", Constants.MESSAGE_USER_NOT_AUTHORIZED_TICKET);
+            } else {
+                long storedTotal = totalsByTicket.getOrDefault(ticketId, 0L);
+                List<TicketResponse> unflushed = unflushedReplies(ticketId,
+                        journaledByTicket.getOrDefault(ticketId, List.of()), storedIds);
+                int totalPages = totalPages(storedTotal + unflushed.size(), size);
+                List<TicketResponse> pendingOnPage = pendingSlice(unflushed, storedTotal, page, size);
+                if (!pendingOnPage.isEmpty()) {
+                    List<TicketResponseDTO> pageResponses = responsesByTicket.computeIfAbsent(ticketId, id -> new ArrayList<>());
+                    Set<Long> onPage = pageResponses.stream().map(TicketResponseDTO::getResponseId).collect(Collectors.toSet());
+                    pageResponses.addAll(mapResponsesToDTOs(pendingOnPage.stream()
+                            .filter(reply -> !onPage.contains(reply.getResponseId()))
+                            .toList(), snapshot, user));
+                }
+                ticketDetails.put("status", snapshot.getStatus());
+                ticketDetails.put("category", snapshot.getCategory());
+                ticketDetails.put("time", snapshot.getCreatedAt());
+                ticketDetails.put("description", snapshot.getDescription());
+                ticketDetails.put("responses", responsesByTicket.getOrDefault(ticketId, new ArrayList<>()));
+                ticketDetails.put("totalPages", totalPages);
+            }
+            results.add(ticketDetails);
+        }
+
+        return results;
+    }
+
+    private Map<Integer, List<Long>> groupByShard(List<Long> ticketIds) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long ticketId : ticketIds) {
+            idsByShard.computeIfAbsent(shardRouter.shardForTicket(ticketId), shard -> new ArrayList<>()).add(ticketId);
+        }
+        return idsByShard;
+    }
+
+    private boolean isParticipant(TicketSnapshotDTO snapshot, long userId) {
+        return snapshot.getCustomerId() == userId
+                || (snapshot.getAgentId() != null && snapshot.getAgentId() == userId);
+    }
+
+    private TicketResponseDTO mapResponseRowToDTO(Object[] row, TicketSnapshotDTO snapshot, User user) {
+        String customerEmail = snapshot.getCustomerEmail() != null ? snapshot.getCustomerEmail() : Constants.NO_EMAIL;
+        String agentEmail = snapshot.getAgentEmail() != null ? snapshot.getAgentEmail() : Constants.NO_EMAIL;
+        boolean isAgent = user.getRole() == Role.AGENT;
+
+        Object createdAt = row[4];
+        return new TicketResponseDTO(
+                ((Number) row[0]).longValue(),
+                snapshot.getTicketId(),
+                (String) row[2],
+                row[3] != null ? row[3].toString() : Constants.UNKNOWN,
+                isAgent ? agentEmail : customerEmail,     // from
+                isAgent ? customerEmail : agentEmail,     // to
+                createdAt instanceof java.sql.Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) createdAt
+        );
+    }
+
+    private List<TicketResponseDTO> mapResponsesToDTOs(List<TicketResponse> responses, TicketSnapshotDTO ticket, User user) {
+        String customerEmail = ticket.getCustomerEmail() != null ? ticket.getCustomerEmail() : Constants.NO_EMAIL;
+        String agentEmail = ticket.getAgentEmail() != null ? ticket.getAgentEmail() : Constants.NO_EMAIL;
+
         List<TicketResponseDTO> responseDTOs = new ArrayList<>();
         for (TicketResponse response : responses) {
-            String userEmail;
-            String agentEmail;
+            String fromEmail;
+            String toEmail;
 
-            // For CUSTOMER: userEmail is the customer's email, and agentEmail is the agent's email
-            // For AGENT: userEmail is the agent's email, and agentEmail is the customer's email
+            // For CUSTOMER: from is the customer's email, and to is the agent's email
+            // For AGENT: from is the agent's email, and to is the customer's email
             if (user.getRole() == null || user.getRole() == Role.CUSTOMER) {
-                userEmail = ticket.getCustomer() != null ? ticket.getCustomer().getEmail() : Constants.NO_EMAIL;
-                agentEmail = ticket.getAgent() != null ? ticket.getAgent().getEmail() : Constants.NO_EMAIL;
+                fromEmail = customerEmail;
+                toEmail = agentEmail;
             } else if (user.getRole() == Role.AGENT) {
-                userEmail = ticket.getAgent() != null ? ticket.getAgent().getEmail() : Constants.NO_EMAIL;
-                agentEmail = ticket.getCustomer() != null ? ticket.getCustomer().getEmail() : Constants.NO_EMAIL;
+                fromEmail = agentEmail;
+                toEmail = customerEmail;
             } else {
                 // Default case if the role is null or unrecognized
-                userEmail = Constants.NO_EMAIL;
-                agentEmail = Constants.NO_EMAIL;
+                fromEmail = Constants.NO_EMAIL;
+                toEmail = Constants.NO_EMAIL;
             }
 
             // Add the response to DTO list
@@ -171,8 +425,8 @@ public class TicketService {
                     ticket.getTicketId(),
                     response.getResponseText(),
                     response.getRole() != null ? response.getRole().toString() : Constants.UNKNOWN,
-                    userEmail,        // from
-                    agentEmail,       // to
+                    fromEmail,        // from
+                    toEmail,          // to
                     response.getCreatedAt()
             ));
         }
@@ -180,8 +434,14 @@ public class TicketService {
         return responseDTOs;
     }
 
+    // Written to the customer's shard in one transaction, together with its summary row
     public Ticket createTicket(long userId, Long bookingId, String description, String role) {
-        logger.info(String.format(Constants.LOG_USER_SIGNUP_ATTEMPT, userId));
+        return shardRouter.inTransaction(shardRouter.shardForCustomer(userId),
+                () -> createTicketOnShard(userId, bookingId, description, role));
+    }
+
+    private Ticket createTicketOnShard(long userId, Long bookingId, String description, String role) {
+        logger.debug(Constants.LOG_TICKET_CREATE_ATTEMPT, userId);
 
         User user = userRespository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(String.format(Constants.LOG_USER_NOT_FOUND, userId)));
@@ -217,7 +477,11 @@ public class TicketService {
         ticket.setAgent(agent);
 
         Ticket savedTicket = ticketRepository.save(ticket);
-        logger.info(String.format(Constants.LOG_USER_CREATED, savedTicket.getTicketId()));
+        ticketSummaryService.recordTicket(savedTicket);
+        userTicketCacheService.evict(user, agent);
+        agentWorkQueueService.enqueue(savedTicket);
+        slaEscalationService.track(savedTicket);
+        logger.info(Constants.LOG_TICKET_CREATED, savedTicket.getTicketId());
 
         return savedTicket;
     }
@@ -236,40 +500,84 @@ public class TicketService {
             throw new IllegalArgumentException(Constants.MESSAGE_INVALID_ROLE);
         }
 
-        // Handle the "ALL" status case
-        Page<Ticket> ticketPage;
-        if (status != null && status.equalsIgnoreCase(Constants.STATUS_ALL)) {
-            // Fetch tickets without filtering by status if status is "ALL"
-            ticketPage = ticketRepository.findAllTicketsWithoutStatus(userId, Role.valueOf(role.toUpperCase()), pageable);
-        } else {
-            // Otherwise, fetch tickets with status filtering
-            Status statusEnum = Status.valueOf(status.toUpperCase());
-            ticketPage = ticketRepository.findByUserIdAndRoleAndStatus(userId, Role.valueOf(role.toUpperCase()), statusEnum, pageable);
+        // Only the dashboard's first page is cached, and only when it comes from the read model;
+        // a page picked by the local index stays out of the shared cache
+        if (ticketBitmapIndex.isReady()) {
+            return computeFilteredTickets(userId, role, status, pageable, true);
+        }
+        if (status == null || !userTicketCacheService.isCacheableListPage(pageable.getPageNumber(), pageable.getPageSize())) {
+            return computeFilteredTickets(userId, role, status, pageable, false);
         }
 
-        List<Ticket> tickets = ticketPage.getContent();
+        String cacheKey = userTicketCacheService.buildListKey(userId, role, status);
+        Map<String, List<SimpleTicketDTO>> cachedResult = userTicketCacheService.getList(cacheKey);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        Map<String, List<SimpleTicketDTO>> result = computeFilteredTickets(userId, role, status, pageable, false);
+        userTicketCacheService.putList(cacheKey, result);
+        return result;
+    }
+
+    // Reads one list page from the ticket_summary read model, bypassing the cache
+    public Map<String, List<SimpleTicketDTO>> computeFilteredTickets(long userId, String role, String status, Pageable pageable) {
+        return computeFilteredTickets(userId, role, status, pageable, ticketBitmapIndex.isReady());
+    }
+
+    // The read model only, for results that go into the shared cache
+    Map<String, List<SimpleTicketDTO>> computeFilteredTicketsForCache(long userId, String role, String status, Pageable pageable) {
+        return computeFilteredTickets(userId, role, status, pageable, false);
+    }
+
+    private Map<String, List<SimpleTicketDTO>> computeFilteredTickets(long userId, String role, String status, Pageable pageable,
+                                                                      boolean useIndex) {
+        // Newest first, which is also the order of the (user, status, created_at) summary indexes
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(Sort.Direction.DESC, "createdAt"));
+        Status statusEnum = status == null || status.equalsIgnoreCase(Constants.STATUS_ALL) ? null : Status.valueOf(status.toUpperCase());
+
+        List<TicketSummary> summaries;
+        if (useIndex) {
+            // The index picks the page's ticket ids; only those summary rows are read
+            List<Long> ticketIds = ticketBitmapIndex.findTicketIds(userId, role.equalsIgnoreCase(Constants.ROLE_AGENT), statusEnum,
+                    sortedPageable.getOffset(), pageable.getPageSize());
+            summaries = findSummariesInOrder(ticketIds);
+        } else if (role.equalsIgnoreCase(Constants.ROLE_AGENT) && shardRouter.isSharded()) {
+            // Scatter-gather: each shard returns its newest tickets up to the end of the requested
+            // page, then the merged list is cut down to that page
+            int limit = (pageable.getPageNumber() + 1) * pageable.getPageSize();
+            Pageable shardPageable = PageRequest.of(0, limit, sortedPageable.getSort());
+            summaries = new ArrayList<>();
+            for (List<TicketSummary> shardSummaries : shardRouter.onAllShards(shard -> findAgentSummaries(userId, statusEnum, shardPageable))) {
+                summaries.addAll(shardSummaries);
+            }
+            summaries.sort(Comparator.comparing(TicketSummary::getCreatedAt).reversed());
+            int from = Math.min((int) sortedPageable.getOffset(), summaries.size());
+            summaries = summaries.subList(from, Math.min(from + pageable.getPageSize(), summaries.size()));
+        } else if (role.equalsIgnoreCase(Constants.ROLE_AGENT)) {
+            summaries = findAgentSummaries(userId, statusEnum, sortedPageable);
+        } else {
+            summaries = shardRouter.onShard(shardRouter.shardForCustomer(userId), () -> statusEnum == null
+                    ? ticketSummaryRepository.findByCustomerId(userId, sortedPageable).getContent()
+                    : ticketSummaryRepository.findByCustomerIdAndStatus(userId, statusEnum, sortedPageable).getContent());
+        }
 
         // Separate tickets into Prebooking and Postbooking
         List<SimpleTicketDTO> prebookingTickets = new ArrayList<>();
         List<SimpleTicketDTO> postbookingTickets = new ArrayList<>();
 
-        for (Ticket ticket : tickets) {
-            // Get Customer and Agent emails
-            String customerEmail = ticket.getCustomer() != null ? ticket.getCustomer().getEmail() : Constants.NO_EMAIL;
-            String agentEmail = ticket.getAgent() != null ? ticket.getAgent().getEmail() : Constants.NO_EMAIL;
-
-            // Create DTO with email addresses included
+        for (TicketSummary summary : summaries) {
             SimpleTicketDTO dto = new SimpleTicketDTO(
-                    ticket.getTicketId(),
-                    ticket.getDescription(),
-                    ticket.getStatus().name(),
-                    ticket.getCreatedAt(),
-                    customerEmail,
-                    agentEmail
+                    summary.getTicketId(),
+                    summary.getDescription(),
+                    summary.getStatus().name(),
+                    summary.getCreatedAt(),
+                    summary.getCustomerEmail() != null ? summary.getCustomerEmail() : Constants.NO_EMAIL,
+                    summary.getAgentEmail() != null ? summary.getAgentEmail() : Constants.NO_EMAIL
             );
 
-            if (ticket.getBooking() == null) {
-                // No booking ID exists, this is a prebooking ticket
+            if (summary.getCategory() == Category.PREBOOKING) {
                 prebookingTickets.add(dto);
             } else {
                 postbookingTickets.add(dto);
@@ -284,8 +592,46 @@ public class TicketService {
         return result;
     }
 
+    private List<TicketSummary> findSummariesInOrder(List<Long> ticketIds) {
+        Map<Long, TicketSummary> byId = new HashMap<>();
+        for (Map.Entry<Integer, List<Long>> shardIds : groupByShard(ticketIds).entrySet()) {
+            shardRouter.onShard(shardIds.getKey(), () -> ticketSummaryRepository.findAllById(shardIds.getValue()))
+                    .forEach(summary -> byId.put(summary.getTicketId(), summary));
+        }
+        List<TicketSummary> summaries = new ArrayList<>(ticketIds.size());
+        for (Long ticketId : ticketIds) {
+            TicketSummary summary = byId.get(ticketId);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    // A null status means "ALL"
+    private List<TicketSummary> findAgentSummaries(long agentId, Status status, Pageable pageable) {
+        return status == null
+                ? ticketSummaryRepository.findByAgentId(agentId, pageable).getContent()
+                : ticketSummaryRepository.findByAgentIdAndStatus(agentId, status, pageable).getContent();
+    }
+
+    private Category parseCategory(String category) {
+        if (category == null || category.equalsIgnoreCase(Constants.STATUS_ALL)) {
+            return null;
+        }
+        try {
+            return Category.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid category: " + category);
+        }
+    }
 
     public List<TicketResponseDTO> getAllTicketResponses(long userId, long ticketId) {
+        return shardRouter.inReadOnlyTransaction(shardRouter.shardForTicket(ticketId),
+                () -> getAllTicketResponsesOnShard(userId, ticketId));
+    }
+
+    private List<TicketResponseDTO> getAllTicketResponsesOnShard(long userId, long ticketId) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new BookingNotFoundException("Ticket not found with ID: " + ticketId));
 
@@ -307,6 +653,22 @@ public class TicketService {
             repliesDTO.add(responseDTO);
         }
 
+        // Replies acknowledged through the write-behind journal but not flushed yet
+        Set<Long> seen = repliesDTO.stream().map(TicketResponseDTO::getResponseId).collect(Collectors.toSet());
+        for (ReplyWriteBehindService.PendingReply pending : replyWriteBehindService.pendingReplies(ticketId)) {
+            if (seen.add(pending.responseId())) {
+                repliesDTO.add(new TicketResponseDTO(
+                        pending.responseId(),
+                        ticket.getTicketId(),
+                        pending.responseText(),
+                        pending.role().toString(),
+                        pending.userEmail(),
+                        ticket.getAgent() != null ? ticket.getAgent().getEmail() : null,
+                        pending.createdAt()
+                ));
+            }
+        }
+
         return repliesDTO;
     }
 
@@ -0,0 +1,82 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.entity.TicketSummary;
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.enums.Status;
+import com.example.TicketApp.repository.TicketSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+
+// Keeps the ticket_summary read model in step with tickets. Called synchronously from
+// the ticket write paths so the row commits (or rolls back) with the ticket itself.
+// The in-memory bitmap index follows the same events once they commit.
+@Service
+public class TicketSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSummaryService.class);
+
+    private final TicketSummaryRepository ticketSummaryRepository;
+    private final ShardRouter shardRouter;
+    private final TicketBitmapIndex ticketBitmapIndex;
+
+    public TicketSummaryService(TicketSummaryRepository ticketSummaryRepository, ShardRouter shardRouter,
+                                TicketBitmapIndex ticketBitmapIndex) {
+        this.ticketSummaryRepository = ticketSummaryRepository;
+        this.shardRouter = shardRouter;
+        this.ticketBitmapIndex = ticketBitmapIndex;
+    }
+
+    public void recordTicket(Ticket ticket) {
+        TicketSummary summary = new TicketSummary(
+                ticket.getTicketId(),
+                ticket.getDescription(),
+                ticket.getStatus(),
+                ticket.getCategory(),
+                ticket.getCreatedAt(),
+                ticket.getCustomer().getUserId(),
+                ticket.getCustomer().getEmail(),
+                ticket.getAgent() != null ? ticket.getAgent().getUserId() : null,
+                ticket.getAgent() != null ? ticket.getAgent().getEmail() : null
+        );
+        ticketSummaryRepository.save(summary);
+        ticketBitmapIndex.recordTicket(summary.getTicketId(), summary.getCustomerId(), summary.getAgentId(),
+                summary.getStatus(), summary.getCategory());
+    }
+
+    public void recordStatusChange(long ticketId, Status status) {
+        recordStatusChange(Collections.singletonList(ticketId), status);
+    }
+
+    public void recordStatusChange(Collection<Long> ticketIds, Status status) {
+        if (!ticketIds.isEmpty()) {
+            ticketSummaryRepository.updateStatus(ticketIds, status);
+            ticketBitmapIndex.recordStatusChange(ticketIds, status);
+        }
+    }
+
+    public void recordReassignment(long ticketId, User agent) {
+        ticketSummaryRepository.updateAgent(ticketId, agent.getUserId(), agent.getEmail());
+        ticketBitmapIndex.recordReassignment(ticketId, agent.getUserId());
+    }
+
+    // Each shard holds the summaries of its own tickets
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            shardRouter.inTransaction(shard, () -> {
+                int inserted = ticketSummaryRepository.insertMissingSummaries();
+                int repaired = ticketSummaryRepository.repairStatuses();
+                logger.info("Ticket summary backfill on shard {} inserted {} rows and repaired {} statuses", target, inserted, repaired);
+                return null;
+            });
+        }
+    }
+}
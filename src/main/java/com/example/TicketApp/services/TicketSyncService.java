@@ -0,0 +1,197 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.CustomErrors.UserNotFoundException;
+import com.example.TicketApp.DTO.SyncReplyDTO;
+import com.example.TicketApp.DTO.SyncTicketDTO;
+import com.example.TicketApp.DTO.TicketChangesDTO;
+import com.example.TicketApp.DTO.TicketOwnershipDTO;
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.entity.SyncTombstone;
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.enums.Role;
+import com.example.TicketApp.repository.SyncTombstoneRepository;
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.TicketResponseRepository;
+import com.example.TicketApp.repository.UserRespository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Delta sync for client-side caches: everything a user can see that changed after a cursor.
+// Tickets are found through the per-user (updated_at, id) indexes and replies through the user's
+// tickets; deletions and tickets reassigned away from an agent leave per-user tombstones, which are
+// kept for the retention period. The three streams share one (timestamp, id) cursor, so a client
+// stores a single pair. A ticket escalated to an agent after the cursor arrives with its earlier
+// replies too, since those predate the cursor and the agent has never seen them.
+// Rows stamped in the last settle-ms are held back, since a transaction that stamped an earlier
+// updated_at may not have committed yet and would otherwise be skipped for good.
+@Service
+public class TicketSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSyncService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TicketRepository ticketRepository;
+    private final TicketResponseRepository ticketResponseRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final UserRespository userRespository;
+    private final ShardRouter shardRouter;
+    private final Duration settle;
+    private final Duration retention;
+    private final int maxLimit;
+
+    public TicketSyncService(TicketRepository ticketRepository, TicketResponseRepository ticketResponseRepository,
+                             SyncTombstoneRepository syncTombstoneRepository, UserRespository userRespository,
+                             ShardRouter shardRouter,
+                             @Value("${ticketapp.sync.settle-ms:5000}") long settleMs,
+                             @Value("${ticketapp.sync.tombstone-retention-days:30}") long retentionDays,
+                             @Value("${ticketapp.sync.max-limit:500}") int maxLimit) {
+        this.ticketRepository = ticketRepository;
+        this.ticketResponseRepository = ticketResponseRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.userRespository = userRespository;
+        this.shardRouter = shardRouter;
+        this.settle = Duration.ofMillis(settleMs);
+        this.retention = Duration.ofDays(retentionDays);
+        this.maxLimit = maxLimit;
+    }
+
+    // since == null starts a full sync; page through until hasMore is false
+    public TicketChangesDTO changesSince(long userId, LocalDateTime since, long sinceId, int limit) {
+        User user = userRespository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(Constants.LOG_USER_NOT_FOUND, userId));
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = since != null ? since : EPOCH;
+
+        TicketChangesDTO changes = new TicketChangesDTO();
+        if (since != null && since.isBefore(now.minus(retention))) {
+            // Tombstones this client needs may already be pruned
+            changes.setResetRequired(true);
+            return changes;
+        }
+
+        LocalDateTime until = now.minus(settle);
+        boolean isAgent = user.getRole() == Role.AGENT;
+        // One row past the page from every stream on every shard is enough to merge exactly
+        Pageable window = PageRequest.of(0, pageSize + 1);
+        List<Change> merged = new ArrayList<>();
+        if (isAgent) {
+            // An agent's tickets are spread over every shard
+            for (List<Change> shardChanges : shardRouter.onAllShards(shard ->
+                    shardRouter.inReadOnlyTransaction(shard, () -> readChanges(userId, true, from, sinceId, until, window)))) {
+                merged.addAll(shardChanges);
+            }
+        } else {
+            merged.addAll(shardRouter.inReadOnlyTransaction(shardRouter.shardForCustomer(userId),
+                    () -> readChanges(userId, false, from, sinceId, until, window)));
+        }
+        merged.sort(Comparator.comparing(Change::at).thenComparingLong(Change::id));
+
+        int taken = Math.min(pageSize, merged.size());
+        for (Change change : merged.subList(0, taken)) {
+            if (change.value() instanceof SyncTicketDTO ticket) {
+                changes.getTickets().add(ticket);
+            } else if (change.value() instanceof SyncReplyDTO reply) {
+                changes.getReplies().add(reply);
+            } else {
+                changes.getDeleted().add((SyncTombstone) change.value());
+            }
+        }
+        if (isAgent && since != null) {
+            changes.getReplies().addAll(0, replyHistory(changes.getTickets(), since, sinceId));
+        }
+        changes.setHasMore(merged.size() > pageSize);
+        if (taken > 0) {
+            Change last = merged.get(taken - 1);
+            changes.setNextSince(last.at());
+            changes.setNextSinceId(last.id());
+        } else {
+            // Nothing new: hand the cursor back unchanged
+            changes.setNextSince(since);
+            changes.setNextSinceId(sinceId);
+        }
+        return changes;
+    }
+
+    private List<Change> readChanges(long userId, boolean isAgent, LocalDateTime since, long sinceId,
+                                     LocalDateTime until, Pageable window) {
+        List<Change> changes = new ArrayList<>();
+        List<SyncTicketDTO> tickets = isAgent
+                ? ticketRepository.findAgentChanges(userId, since, sinceId, until, window)
+                : ticketRepository.findCustomerChanges(userId, since, sinceId, until, window);
+        tickets.forEach(ticket -> changes.add(new Change(ticket.getUpdatedAt(), ticket.getTicketId(), ticket)));
+        List<SyncReplyDTO> replies = isAgent
+                ? ticketResponseRepository.findAgentChanges(userId, since, sinceId, until, window)
+                : ticketResponseRepository.findCustomerChanges(userId, since, sinceId, until, window);
+        replies.forEach(reply -> changes.add(new Change(reply.getUpdatedAt(), reply.getResponseId(), reply)));
+        syncTombstoneRepository.findChanges(userId, since, sinceId, until, window)
+                .forEach(tombstone -> changes.add(new Change(tombstone.getDeletedAt(), tombstone.getTombstoneId(), tombstone)));
+        return changes;
+    }
+
+    // Replies at or before the cursor on tickets escalated to the agent after it; later replies come
+    // through the normal stream
+    private List<SyncReplyDTO> replyHistory(List<SyncTicketDTO> tickets, LocalDateTime since, long sinceId) {
+        Map<Integer, List<Long>> newTicketsByShard = tickets.stream()
+                .filter(ticket -> ticket.getEscalatedAt() != null && !ticket.getEscalatedAt().isBefore(since))
+                .map(SyncTicketDTO::getTicketId)
+                .collect(Collectors.groupingBy(shardRouter::shardForTicket));
+        List<SyncReplyDTO> history = new ArrayList<>();
+        newTicketsByShard.forEach((shard, ticketIds) -> history.addAll(shardRouter.inReadOnlyTransaction(shard,
+                () -> ticketResponseRepository.findHistoryBefore(ticketIds, since, sinceId))));
+        history.sort(Comparator.comparing(SyncReplyDTO::getUpdatedAt).thenComparing(SyncReplyDTO::getResponseId));
+        return history;
+    }
+
+    // Called inside the delete's shard transaction, so the tombstone commits with it
+    public void recordReplyDeleted(long ticketId, long responseId) {
+        List<TicketOwnershipDTO> owners = ticketRepository.findOwnershipByTicketIds(List.of(ticketId));
+        if (owners.isEmpty()) {
+            return;
+        }
+        TicketOwnershipDTO owner = owners.get(0);
+        LocalDateTime now = LocalDateTime.now();
+        List<SyncTombstone> tombstones = new ArrayList<>(2);
+        tombstones.add(new SyncTombstone(null, owner.getCustomerId(), SyncTombstone.ENTITY_REPLY, responseId, ticketId, now));
+        if (owner.getAgentId() != null) {
+            tombstones.add(new SyncTombstone(null, owner.getAgentId(), SyncTombstone.ENTITY_REPLY, responseId, ticketId, now));
+        }
+        syncTombstoneRepository.saveAll(tombstones);
+    }
+
+    // Called when a ticket is handed to another agent; the previous agent's cache has to drop it
+    public void recordTicketRemoved(long ticketId, long previousAgentId) {
+        syncTombstoneRepository.save(new SyncTombstone(null, previousAgentId, SyncTombstone.ENTITY_TICKET,
+                ticketId, ticketId, LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${ticketapp.sync.prune-interval-ms:3600000}")
+    public void pruneTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int pruned = 0;
+        for (Integer count : shardRouter.onAllShards(shard ->
+                shardRouter.inTransaction(shard, () -> syncTombstoneRepository.deleteOlderThan(cutoff)))) {
+            pruned += count;
+        }
+        if (pruned > 0) {
+            logger.info("Pruned {} sync tombstones older than {}", pruned, cutoff);
+        }
+    }
+
+    private record Change(LocalDateTime at, long id, Object value) {
+    }
+}
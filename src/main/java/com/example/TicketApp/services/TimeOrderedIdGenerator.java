@@ -0,0 +1,96 @@
+package com.example.TicketApp.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 64-bit ids generated in-process without locks or database round trips:
+//
+//   | 0 | 1 | 40 bits millis since EPOCH | 4 bits shard | 6 bits worker | 12 bits sequence |
+//
+// Bit 62 marks a generated id, so every generated id is larger than any identity value the
+// database handed out before, and ShardRouter can tell the two apart. Ids from one generator
+// strictly increase; ids from different workers are ordered by their millisecond.
+public class TimeOrderedIdGenerator {
+
+    public static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    public static final int SEQUENCE_BITS = 12;
+    public static final int WORKER_BITS = 6;
+    public static final int SHARD_BITS = 4;
+    public static final int TIMESTAMP_BITS = 40;
+
+    public static final int MAX_WORKERS = 1 << WORKER_BITS;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = WORKER_SHIFT + WORKER_BITS;
+    private static final int TIMESTAMP_SHIFT = SHARD_SHIFT + SHARD_BITS;
+    private static final long GENERATED_FLAG = 1L << (TIMESTAMP_SHIFT + TIMESTAMP_BITS);
+
+    private static volatile TimeOrderedIdGenerator shared = new TimeOrderedIdGenerator(0);
+
+    private final int workerId;
+    private final LongSupplier clock;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedIdGenerator(int workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    public TimeOrderedIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + (MAX_WORKERS - 1));
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    // The generator used by the Hibernate id generator; replaced once at startup with the configured worker id
+    public static TimeOrderedIdGenerator shared() {
+        return shared;
+    }
+
+    public static void configure(int workerId) {
+        shared = new TimeOrderedIdGenerator(workerId);
+    }
+
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (MAX_SHARDS - 1));
+        }
+        while (true) {
+            long last = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            // A new millisecond restarts the sequence. Within the same millisecond, or if the clock
+            // stepped back, keep counting: a full sequence carries into the next millisecond.
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return GENERATED_FLAG
+                        | (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT
+                        | (long) shard << SHARD_SHIFT
+                        | (long) workerId << WORKER_SHIFT
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static boolean isGenerated(long id) {
+        return (id & GENERATED_FLAG) != 0;
+    }
+
+    public static int shardOf(long id) {
+        return (int) ((id >>> SHARD_SHIFT) & (MAX_SHARDS - 1));
+    }
+
+    public static int workerOf(long id) {
+        return (int) ((id >>> WORKER_SHIFT) & (MAX_WORKERS - 1));
+    }
+
+    // Creation time in epoch millis
+    public static long timestampOf(long id) {
+        return ((id & ~GENERATED_FLAG) >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+}
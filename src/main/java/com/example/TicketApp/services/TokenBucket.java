@@ -0,0 +1,41 @@
+package com.example.TicketApp.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket implemented as GCRA: the whole bucket state is a single
+// "theoretical arrival time" so acquiring a token is one CAS and no allocation.
+public class TokenBucket {
+
+    private final long intervalNanos;   // time to refill one token
+    private final long burstNanos;      // capacity * intervalNanos
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    // Returns 0 if a token was taken, otherwise the nanos to wait before one is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, nowNanos) + intervalNanos;
+            long allowAt = newTat - burstNanos;
+            if (allowAt - nowNanos > 0) {
+                return allowAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return 0L;
+            }
+        }
+    }
+
+    // A bucket that has refilled completely holds no state worth keeping
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Per-user dashboard views cached in Redis: ticket counts per category and the first list page per status.
+// Keys are deterministic so a write can evict everything it affects with a single DEL.
+@Service
+public class UserTicketCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTicketCacheService.class);
+
+    public static final List<String> CATEGORIES =
+            List.of(Constants.STATUS_ALL, Category.PREBOOKING.name(), Category.POSTBOOKING.name());
+    public static final List<String> STATUSES =
+            List.of(Constants.STATUS_ALL, Constants.STATUS_ACTIVE, Constants.STATUS_RESOLVED);
+
+    private final ResilientRedisCache redisCache;
+
+    public UserTicketCacheService(ResilientRedisCache redisCache) {
+        this.redisCache = redisCache;
+    }
+
+    public String buildKey(long userId, String role, String category) {
+        String normalizedCategory = category == null ? Constants.STATUS_ALL : category.toUpperCase();
+        return Constants.CACHE_KEY_PREFIX + userId + "::" + role.toUpperCase() + "::" + normalizedCategory;
+    }
+
+    // Only the first page at the default size is cached; that is what every dashboard opens with
+    public String buildListKey(long userId, String role, String status) {
+        return Constants.LIST_CACHE_KEY_PREFIX + userId + "::" + role.toUpperCase() + "::" + status.toUpperCase();
+    }
+
+    // False while the Redis circuit breaker is open or probing
+    public boolean isAvailable() {
+        return redisCache.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    public boolean isCacheableListPage(int page, int size) {
+        return page == 0 && size == Constants.DEFAULT_PAGE_SIZE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> get(String cacheKey) {
+        return (Map<String, Long>) redisCache.get(cacheKey);
+    }
+
+    public void put(String cacheKey, Map<String, Long> counts) {
+        redisCache.set(cacheKey, counts, Duration.ofMinutes(Constants.CACHE_TTL));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, List<SimpleTicketDTO>> getList(String cacheKey) {
+        return (Map<String, List<SimpleTicketDTO>>) redisCache.get(cacheKey);
+    }
+
+    public void putList(String cacheKey, Map<String, List<SimpleTicketDTO>> tickets) {
+        redisCache.set(cacheKey, tickets, Duration.ofMinutes(Constants.CACHE_TTL));
+    }
+
+    // Returns which of the given keys already hold a value, in one MGET
+    public List<Object> getAll(List<String> cacheKeys) {
+        return redisCache.multiGet(cacheKeys);
+    }
+
+    // Writes many entries in a single pipelined round trip
+    public void putAll(Map<String, Object> entries) {
+        redisCache.setAll(entries, Duration.ofMinutes(Constants.CACHE_TTL));
+    }
+
+    public void evict(User customer, User agent) {
+        evict(customer != null ? Collections.singletonList(customer.getUserId()) : Collections.emptyList(),
+                agent != null ? Collections.singletonList(agent.getUserId()) : Collections.emptyList());
+    }
+
+    // Drops every cached view of the given customers and agents with a single DEL.
+    // Inside a transaction the DEL runs after commit so readers cannot re-cache stale data.
+    public void evict(Collection<Long> customerIds, Collection<Long> agentIds) {
+        List<String> keys = new ArrayList<>((customerIds.size() + agentIds.size()) * (CATEGORIES.size() + STATUSES.size()));
+        for (Long customerId : customerIds) {
+            addKeys(keys, customerId, Role.CUSTOMER);
+        }
+        for (Long agentId : agentIds) {
+            addKeys(keys, agentId, Role.AGENT);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteKeys(keys);
+                }
+            });
+        } else {
+            deleteKeys(keys);
+        }
+    }
+
+    private void addKeys(List<String> keys, Long userId, Role role) {
+        for (String category : CATEGORIES) {
+            keys.add(buildKey(userId, role.name(), category));
+        }
+        for (String status : STATUSES) {
+            keys.add(buildListKey(userId, role.name(), status));
+        }
+    }
+
+    private void deleteKeys(List<String> keys) {
+        redisCache.delete(keys);
+    }
+}
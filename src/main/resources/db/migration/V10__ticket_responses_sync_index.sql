@@ -0,0 +1,8 @@
+-- Delta sync reads a user's replies by starting from their tickets (customer_id / agent_id indexes
+-- from V8) and then each ticket's replies in cursor order. The global (updated_at, response_id)
+-- index walked every user's replies and is no longer read.
+
+CREATE INDEX IF NOT EXISTS idx_ticket_responses_ticket_updated
+    ON ticket_responses (ticket_id, updated_at, response_id);
+
+DROP INDEX IF EXISTS idx_ticket_responses_updated;
@@ -0,0 +1,62 @@
+-- Shard moves: a customer being moved off a shard is fenced there, and every write to that
+-- customer's bookings, tickets, replies or summaries on the shard is rejected from then on.
+-- The check is a deferred constraint trigger, so it runs at commit: a writer that committed
+-- without seeing the fence held its row locks until then, and the move waits for those locks
+-- before it copies anything. The move itself sets ticketapp.shard_move to delete the rows it
+-- has copied. The fence stays after the move and is lifted when the customer moves back.
+
+CREATE TABLE IF NOT EXISTS customer_fences (
+    customer_id BIGINT PRIMARY KEY,
+    fenced_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION reject_fenced_customer_write() RETURNS trigger AS $$
+DECLARE
+    customer BIGINT;
+BEGIN
+    IF current_setting('ticketapp.shard_move', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    -- NEW is null for deletes and OLD for inserts; only the branch for this table and operation runs
+    IF TG_TABLE_NAME = 'booking' THEN
+        IF TG_OP = 'DELETE' THEN customer := OLD.user_id; ELSE customer := NEW.user_id; END IF;
+    ELSIF TG_TABLE_NAME = 'ticket_responses' THEN
+        IF TG_OP = 'DELETE' THEN
+            SELECT t.customer_id INTO customer FROM tickets t WHERE t.ticket_id = OLD.ticket_id;
+        ELSE
+            SELECT t.customer_id INTO customer FROM tickets t WHERE t.ticket_id = NEW.ticket_id;
+        END IF;
+    ELSE
+        IF TG_OP = 'DELETE' THEN customer := OLD.customer_id; ELSE customer := NEW.customer_id; END IF;
+    END IF;
+    IF EXISTS (SELECT 1 FROM customer_fences f WHERE f.customer_id = customer) THEN
+        RAISE EXCEPTION 'Customer % is being moved to another shard', customer
+            USING ERRCODE = 'lock_not_available';
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS booking_customer_fence ON booking;
+CREATE CONSTRAINT TRIGGER booking_customer_fence
+    AFTER INSERT OR UPDATE OR DELETE ON booking
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION reject_fenced_customer_write();
+
+DROP TRIGGER IF EXISTS tickets_customer_fence ON tickets;
+CREATE CONSTRAINT TRIGGER tickets_customer_fence
+    AFTER INSERT OR UPDATE OR DELETE ON tickets
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION reject_fenced_customer_write();
+
+DROP TRIGGER IF EXISTS ticket_responses_customer_fence ON ticket_responses;
+CREATE CONSTRAINT TRIGGER ticket_responses_customer_fence
+    AFTER INSERT OR UPDATE OR DELETE ON ticket_responses
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION reject_fenced_customer_write();
+
+DROP TRIGGER IF EXISTS ticket_summary_customer_fence ON ticket_summary;
+CREATE CONSTRAINT TRIGGER ticket_summary_customer_fence
+    AFTER INSERT OR UPDATE OR DELETE ON ticket_summary
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION reject_fenced_customer_write();
@@ -0,0 +1,45 @@
+-- Baseline of the schema previously generated by ddl-auto=update.
+-- IF NOT EXISTS keeps it safe to run against databases that already have these tables.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS agent_customer_mapping (
+    customer_id BIGINT NOT NULL REFERENCES users (user_id),
+    agent_id    BIGINT NOT NULL REFERENCES users (user_id),
+    PRIMARY KEY (customer_id, agent_id)
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+    booking_id  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT NOT NULL REFERENCES users (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS tickets (
+    ticket_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id BIGINT NOT NULL REFERENCES users (user_id),
+    agent_id    BIGINT REFERENCES users (user_id),
+    booking_id  BIGINT REFERENCES booking (booking_id),
+    category    VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    status      VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    resolved_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS ticket_responses (
+    response_id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ticket_id     BIGINT NOT NULL REFERENCES tickets (ticket_id),
+    user_id       BIGINT NOT NULL REFERENCES users (user_id),
+    role          VARCHAR(255) NOT NULL,
+    response_text VARCHAR(255) NOT NULL,
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6)
+);
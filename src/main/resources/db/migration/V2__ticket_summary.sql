@@ -0,0 +1,19 @@
+-- Denormalized read model for ticket list and count views (see TicketSummary)
+
+CREATE TABLE IF NOT EXISTS ticket_summary (
+    ticket_id      BIGINT PRIMARY KEY,
+    description    VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    category       VARCHAR(255) NOT NULL,
+    created_at     TIMESTAMP(6),
+    customer_id    BIGINT NOT NULL,
+    customer_email VARCHAR(255),
+    agent_id       BIGINT,
+    agent_email    VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_summary_agent_status_created
+    ON ticket_summary (agent_id, status, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_summary_customer_status_created
+    ON ticket_summary (customer_id, status, created_at);
@@ -0,0 +1,13 @@
+-- Indexes backing the role-specific queries in TicketRepository and the reply pages
+
+CREATE INDEX IF NOT EXISTS idx_tickets_customer_status_created
+    ON tickets (customer_id, status, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_tickets_agent_status_created
+    ON tickets (agent_id, status, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_responses_ticket_created
+    ON ticket_responses (ticket_id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_booking_user
+    ON booking (user_id);
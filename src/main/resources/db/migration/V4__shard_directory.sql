@@ -0,0 +1,9 @@
+-- Placement overrides for customers (and their tickets) moved off their hash-assigned shard.
+-- Only read from shard 0; present everywhere so every shard has the same schema.
+
+CREATE TABLE IF NOT EXISTS shard_directory (
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    shard       INTEGER     NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
@@ -0,0 +1,4 @@
+-- Optimistic locking: Hibernate checks and bumps these on every update of a ticket or reply
+
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE ticket_responses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Lets the date-range export walk tickets in created_at order without sorting the range
+
+CREATE INDEX IF NOT EXISTS idx_tickets_created
+    ON tickets (created_at, ticket_id);
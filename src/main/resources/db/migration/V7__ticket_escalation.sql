@@ -0,0 +1,8 @@
+-- SLA escalation: when a ticket was escalated (and reassigned); NULL until then.
+-- The partial index serves the startup load of tickets that still have a running SLA timer.
+
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS escalated_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_tickets_sla_pending
+    ON tickets (created_at)
+    WHERE status = 'ACTIVE' AND escalated_at IS NULL;
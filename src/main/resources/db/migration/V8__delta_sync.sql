@@ -0,0 +1,26 @@
+-- Delta sync: per-user "changed since" scans walk these (updated_at, id) indexes, and deleted
+-- replies (or tickets handed to another agent) leave a tombstone for each user who saw them.
+
+UPDATE tickets SET updated_at = COALESCE(created_at, now()) WHERE updated_at IS NULL;
+UPDATE ticket_responses SET updated_at = COALESCE(created_at, now()) WHERE updated_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_tickets_customer_updated
+    ON tickets (customer_id, updated_at, ticket_id);
+
+CREATE INDEX IF NOT EXISTS idx_tickets_agent_updated
+    ON tickets (agent_id, updated_at, ticket_id);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_responses_updated
+    ON ticket_responses (updated_at, response_id);
+
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    tombstone_id BIGINT PRIMARY KEY,
+    user_id      BIGINT NOT NULL,
+    entity_type  VARCHAR(32) NOT NULL,
+    entity_id    BIGINT NOT NULL,
+    ticket_id    BIGINT NOT NULL,
+    deleted_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_user_deleted
+    ON sync_tombstones (user_id, deleted_at, tombstone_id);
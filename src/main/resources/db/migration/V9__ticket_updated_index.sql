@@ -0,0 +1,5 @@
+-- Warm restarts: a restored bitmap index snapshot is validated against MAX(updated_at) per shard
+-- and caught up with the tickets updated since it was taken; both read this index.
+
+CREATE INDEX IF NOT EXISTS idx_tickets_updated
+    ON tickets (updated_at);
@@ -0,0 +1,123 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.enums.Category;
+import com.example.TicketApp.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the Flyway migrations against a real Postgres, loads a realistic spread of tickets
+// and checks that the repository queries behind the list/count/reply paths read their tables
+// through indexes only.
+@DataJpaTest(properties = "ticketapp.ids.worker-id=0")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TicketQueryPlanTest {
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private TicketSummaryRepository ticketSummaryRepository;
+
+	@Autowired
+	private TicketResponseRepository ticketResponseRepository;
+
+	@BeforeEach
+	void seed() {
+		// 50 agents, 1000 customers, 50k tickets and 100k replies. Ids are explicit because
+		// each test rolls back its data but identity sequences keep advancing.
+		jdbcTemplate.execute("INSERT INTO users (user_id, email, password, role, created_at, updated_at) " +
+				"SELECT g, 'user' || g || '@example.com', 'secret', " +
+				"CASE WHEN g <= 50 THEN 'AGENT' ELSE 'CUSTOMER' END, now(), now() " +
+				"FROM generate_series(1, 1050) g");
+		jdbcTemplate.execute("INSERT INTO tickets (ticket_id, customer_id, agent_id, category, description, status, created_at, updated_at) " +
+				"SELECT g, 51 + (g % 1000), 1 + (g % 50), " +
+				"CASE WHEN g % 2 = 0 THEN 'PREBOOKING' ELSE 'POSTBOOKING' END, 'ticket ' || g, " +
+				"CASE WHEN g % 10 = 0 THEN 'ACTIVE' ELSE 'RESOLVED' END, " +
+				"now() - (g || ' minutes')::interval, now() " +
+				"FROM generate_series(1, 50000) g");
+		jdbcTemplate.execute("INSERT INTO ticket_responses (response_id, ticket_id, user_id, role, response_text, created_at, updated_at) " +
+				"SELECT g, 1 + (g % 50000), 1 + (g % 50), 'AGENT', 'reply ' || g, now(), now() " +
+				"FROM generate_series(1, 100000) g");
+		jdbcTemplate.execute("INSERT INTO ticket_summary (ticket_id, description, status, category, created_at, " +
+				"customer_id, customer_email, agent_id, agent_email) " +
+				"SELECT t.ticket_id, t.description, t.status, t.category, t.created_at, " +
+				"t.customer_id, c.email, t.agent_id, a.email " +
+				"FROM tickets t JOIN users c ON c.user_id = t.customer_id LEFT JOIN users a ON a.user_id = t.agent_id");
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	@Test
+	void agentSummaryPageUsesIndex() {
+		assertIndexScansOnly("ticket_summary", () -> ticketSummaryRepository.findByAgentIdAndStatus(7L, Status.ACTIVE,
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))));
+	}
+
+	@Test
+	void customerSummaryPageUsesIndex() {
+		assertIndexScansOnly("ticket_summary", () -> ticketSummaryRepository.findByCustomerIdAndStatus(300L, Status.RESOLVED,
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))));
+	}
+
+	@Test
+	void customerSummaryCountUsesIndex() {
+		assertIndexScansOnly("ticket_summary", () -> ticketSummaryRepository.countByCustomerGroupByStatus(300L, Category.PREBOOKING));
+	}
+
+	@Test
+	void agentSummaryCountUsesIndex() {
+		assertIndexScansOnly("ticket_summary", () -> ticketSummaryRepository.countByAgentGroupByStatus(7L, null));
+	}
+
+	@Test
+	void replyPageUsesIndex() {
+		assertIndexScansOnly("ticket_responses", () -> ticketResponseRepository.findByTicketId(1234L, PageRequest.of(0, 10)));
+	}
+
+	@Test
+	void batchedReplyPagesUseIndex() {
+		assertIndexScansOnly("ticket_responses",
+				() -> ticketResponseRepository.findResponsePagesByTicketIds(List.of(1234L, 1235L, 1236L), 0, 10));
+	}
+
+	@Test
+	void ticketSnapshotsUseIndex() {
+		assertIndexScansOnly("tickets", () -> ticketRepository.findSnapshotsByTicketIds(List.of(1234L, 1235L, 1236L)));
+	}
+
+	// Runs the repository method itself, so the statement checked is the one Hibernate issues with
+	// real bind values, and reads this transaction's scan counters for the table around it
+	private void assertIndexScansOnly(String table, Runnable query) {
+		Map<String, Object> before = scanCounts(table);
+		query.run();
+		Map<String, Object> after = scanCounts(table);
+		assertThat(after.get("seq_scan")).as(table + " sequential scans").isEqualTo(before.get("seq_scan"));
+		assertThat((Long) after.get("idx_scan")).as(table + " index scans").isGreaterThan((Long) before.get("idx_scan"));
+	}
+
+	private Map<String, Object> scanCounts(String table) {
+		return jdbcTemplate.queryForMap("SELECT seq_scan, idx_scan FROM pg_stat_xact_user_tables WHERE relname = ?", table);
+	}
+}
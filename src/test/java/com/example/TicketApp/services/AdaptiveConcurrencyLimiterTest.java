@@ -0,0 +1,151 @@
+package com.example.TicketApp.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	// Stand-in for Postgres behind a connection pool: `connections` queries run in parallel and
+	// everything beyond that queues, so latency grows in steps with the number in flight
+	private static final class SlowDatabase {
+		int connections;
+
+		SlowDatabase(int connections) {
+			this.connections = connections;
+		}
+
+		long latencyNanos(int concurrent) {
+			int rounds = Math.max(1, (concurrent + connections - 1) / connections);
+			return SERVICE_NANOS * rounds;
+		}
+	}
+
+	private static final class Simulation {
+		final AdaptiveConcurrencyLimiter limiter;
+		final SlowDatabase database;
+		long now;
+		long shed;
+		long lastLatency;
+
+		Simulation(AdaptiveConcurrencyLimiter limiter, SlowDatabase database) {
+			this.limiter = limiter;
+			this.database = database;
+		}
+
+		// Each round `offered` clients arrive at once; the admitted ones run together and
+		// complete after the database's latency for that concurrency
+		void run(int rounds, int offered) {
+			for (int round = 0; round < rounds; round++) {
+				int admitted = 0;
+				for (int i = 0; i < offered; i++) {
+					if (limiter.tryAcquire()) {
+						admitted++;
+					} else {
+						shed++;
+					}
+				}
+				lastLatency = database.latencyNanos(admitted);
+				now += lastLatency;
+				for (int i = 0; i < admitted; i++) {
+					limiter.release(lastLatency, now);
+				}
+			}
+		}
+	}
+
+	private static AdaptiveConcurrencyLimiter newLimiter(int initialLimit) {
+		return new AdaptiveConcurrencyLimiter(initialLimit, 2, 500, TimeUnit.MILLISECONDS.toNanos(50),
+				10, 1.5, 0.2, 0);
+	}
+
+	@Test
+	void limitFollowsDatabaseCapacity() {
+		SlowDatabase database = new SlowDatabase(20);
+		Simulation simulation = new Simulation(newLimiter(4), database);
+
+		// Off-peak start: the limit opens up from 4 towards what the database can serve
+		simulation.run(2_000, 500);
+		assertThat(simulation.limiter.getLimit()).isBetween(15, 45);
+		assertThat(simulation.shed).isPositive();
+
+		// Postgres struggles and only 5 queries run at once: the limit closes down and
+		// admitted requests stay close to the no-load latency instead of queueing
+		database.connections = 5;
+		simulation.run(2_000, 500);
+		assertThat(simulation.limiter.getLimit()).isBetween(2, 12);
+		assertThat(simulation.lastLatency).isLessThanOrEqualTo(3 * SERVICE_NANOS);
+
+		// Recovery: the limit grows back
+		database.connections = 20;
+		simulation.run(4_000, 500);
+		assertThat(simulation.limiter.getLimit()).isBetween(15, 45);
+		assertThat(simulation.limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void limitDoesNotGrowWhenTrafficIsLight() {
+		Simulation simulation = new Simulation(newLimiter(20), new SlowDatabase(100));
+
+		// Only 3 clients at a time: latency is perfect, but that says nothing about 40 in flight
+		simulation.run(2_000, 3);
+		assertThat(simulation.limiter.getLimit()).isEqualTo(20);
+		assertThat(simulation.shed).isZero();
+	}
+
+	@Test
+	void inFlightNeverExceedsLimitUnderContention() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8, TimeUnit.MILLISECONDS.toNanos(10),
+				5, 1.5, 0.2, System.nanoTime());
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		AtomicInteger admitted = new AtomicInteger();
+
+		int threads = 32;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int thread = 0; thread < threads; thread++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < 200; i++) {
+						if (!limiter.tryAcquire()) {
+							Thread.onSpinWait();
+							continue;
+						}
+						long begin = System.nanoTime();
+						peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+						admitted.incrementAndGet();
+						Thread.sleep(0, 200_000);
+						running.decrementAndGet();
+						long end = System.nanoTime();
+						limiter.release(end - begin, end);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(admitted.get()).isPositive();
+		assertThat(peak.get()).isLessThanOrEqualTo(8);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+}
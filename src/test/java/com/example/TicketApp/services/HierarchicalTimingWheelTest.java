@@ -0,0 +1,70 @@
+package com.example.TicketApp.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+	@Test
+	void timersFireOnTheirTickAcrossAllLevels() {
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+		Random random = new Random(42);
+		Map<Integer, Long> deadlines = new HashMap<>();
+		for (int key = 0; key < 5_000; key++) {
+			// Up to 20M ticks, past the 2^24 span of the top level
+			long deadline = (long) (Math.pow(random.nextDouble(), 4) * 20_000_000);
+			deadlines.put(key, deadline);
+			wheel.schedule(key, deadline);
+		}
+
+		long now = 0;
+		int fired = 0;
+		while (fired < deadlines.size()) {
+			now += 1 + random.nextInt(5_000);
+			for (Integer key : wheel.advance(now)) {
+				long deadline = deadlines.get(key);
+				// Never early, and never later than the advance that covered the deadline
+				assertThat(deadline).isLessThanOrEqualTo(now);
+				assertThat(deadline).isGreaterThan(now - 5_000);
+				fired++;
+			}
+		}
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void cancelledAndRescheduledTimersDoNotFireEarly() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 0);
+		wheel.schedule("resolved", 90_000);
+		wheel.schedule("replied", 90_000);
+		wheel.schedule("kept", 90_000);
+
+		assertThat(wheel.cancel("resolved")).isTrue();
+		assertThat(wheel.cancel("unknown")).isFalse();
+		wheel.schedule("replied", 7_200_000);
+
+		assertThat(wheel.advance(89_000)).isEmpty();
+		assertThat(wheel.advance(90_000)).containsExactly("kept");
+		assertThat(wheel.advance(7_199_000)).isEmpty();
+		assertThat(wheel.advance(7_200_000)).containsExactly("replied");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void overdueTimersFireOnTheNextAdvance() {
+		HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1_000, 1_000_000);
+		List<Long> overdue = new ArrayList<>();
+		for (long key = 0; key < 10; key++) {
+			wheel.schedule(key, 1_000_000 - key * 60_000);
+			overdue.add(key);
+		}
+		assertThat(wheel.advance(1_000_000)).containsExactlyInAnyOrderElementsOf(overdue);
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.TicketApp.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplyJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void recordsAfterTheCheckpointAreRecoveredAcrossSegments() throws Exception {
+		try (ReplyJournal journal = new ReplyJournal(directory, 256)) {
+			for (int i = 1; i <= 40; i++) {
+				long seq = journal.write(payload(i));
+				journal.awaitDurable(seq);
+				assertThat(seq).isEqualTo(i);
+			}
+			journal.checkpoint(25);
+		}
+
+		try (ReplyJournal reopened = new ReplyJournal(directory, 256)) {
+			assertThat(reopened.recovered()).extracting(ReplyJournal.Entry::seq)
+					.containsExactlyElementsOf(range(26, 40));
+			assertThat(new String(reopened.recovered().get(0).payload(), StandardCharsets.UTF_8)).isEqualTo("reply-26");
+			// Numbering carries on after the recovered tail
+			assertThat(reopened.write(payload(41))).isEqualTo(41);
+		}
+	}
+
+	@Test
+	void checkpointDeletesSegmentsThatAreFullyApplied() throws Exception {
+		try (ReplyJournal journal = new ReplyJournal(directory, 256)) {
+			for (int i = 1; i <= 40; i++) {
+				journal.awaitDurable(journal.write(payload(i)));
+			}
+			long before = segmentCount();
+			journal.checkpoint(40);
+			assertThat(segmentCount()).isLessThan(before).isEqualTo(1);
+		}
+		try (ReplyJournal reopened = new ReplyJournal(directory, 256)) {
+			assertThat(reopened.recovered()).isEmpty();
+			assertThat(reopened.write(payload(41))).isEqualTo(41);
+		}
+	}
+
+	@Test
+	void tornTailIsDroppedAndOverwritten() throws Exception {
+		try (ReplyJournal journal = new ReplyJournal(directory, 4096)) {
+			for (int i = 1; i <= 3; i++) {
+				journal.awaitDurable(journal.write(payload(i)));
+			}
+		}
+		// Corrupt the last record's payload, as a crash in the middle of the write would
+		Path segment;
+		try (Stream<Path> files = Files.list(directory)) {
+			segment = files.filter(file -> file.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+		}
+		int recordBytes = 16 + payload(1).length;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.write(java.nio.ByteBuffer.wrap(new byte[] {'X'}), 2L * recordBytes + 16);
+		}
+
+		try (ReplyJournal reopened = new ReplyJournal(directory, 4096)) {
+			assertThat(reopened.recovered()).extracting(ReplyJournal.Entry::seq).containsExactly(1L, 2L);
+			reopened.awaitDurable(reopened.write(payload(3)));
+		}
+		try (ReplyJournal reopened = new ReplyJournal(directory, 4096)) {
+			assertThat(reopened.recovered()).extracting(ReplyJournal.Entry::seq).containsExactly(1L, 2L, 3L);
+		}
+	}
+
+	@Test
+	void concurrentWritersAllBecomeDurable() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try (ReplyJournal journal = new ReplyJournal(directory, 64 * 1024)) {
+			List<Future<Long>> futures = new ArrayList<>();
+			for (int i = 1; i <= 2_000; i++) {
+				int value = i;
+				futures.add(executor.submit(() -> {
+					long seq = journal.write(payload(value));
+					journal.awaitDurable(seq);
+					return seq;
+				}));
+			}
+			for (Future<Long> future : futures) {
+				long seq = future.get();
+				assertThat(journal.durableSeq()).isGreaterThanOrEqualTo(seq);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		try (ReplyJournal reopened = new ReplyJournal(directory, 64 * 1024)) {
+			assertThat(reopened.recovered()).extracting(ReplyJournal.Entry::seq)
+					.containsExactlyElementsOf(range(1, 2_000));
+		}
+	}
+
+	private long segmentCount() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().startsWith("segment-")).count();
+		}
+	}
+
+	private static byte[] payload(int value) {
+		return String.format("reply-%02d", value).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static List<Long> range(long from, long to) {
+		List<Long> values = new ArrayList<>();
+		for (long value = from; value <= to; value++) {
+			values.add(value);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.TicketApp.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Pauses a real Redis to check that the breaker opens, calls are answered locally and fast
+// while it is open, and a half-open probe closes it again once Redis is back.
+@Testcontainers(disabledWithoutDocker = true)
+class ResilientRedisCacheTest {
+
+	private static final Duration COMMAND_TIMEOUT = Duration.ofMillis(100);
+	private static final long OPEN_MS = 300;
+
+	@Container
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+	private LettuceConnectionFactory connectionFactory;
+	private RedisTemplate<String, Object> redisTemplate;
+	private ResilientRedisCache cache;
+
+	@BeforeEach
+	void setUp() {
+		connectionFactory = new LettuceConnectionFactory(
+				new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)),
+				LettuceClientConfiguration.builder().commandTimeout(COMMAND_TIMEOUT).build());
+		connectionFactory.afterPropertiesSet();
+
+		redisTemplate = new RedisTemplate<>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.setKeySerializer(new StringRedisSerializer());
+		redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+		redisTemplate.afterPropertiesSet();
+		// Open the connection up front so connection setup is not counted as a slow call
+		redisTemplate.delete("warmup");
+
+		// Window of 4, opens after 2 bad calls at 50%, one probe to close
+		cache = new ResilientRedisCache(redisTemplate, new SimpleMeterRegistry(),
+				4, 2, 0.5, 50, OPEN_MS, 1, 100, 60);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (isPaused()) {
+			DockerClientFactory.instance().client().unpauseContainerCmd(redis.getContainerId()).exec();
+		}
+		connectionFactory.destroy();
+	}
+
+	@Test
+	void servesLocallyWhileOpenAndRecoversThroughHalfOpenProbe() throws InterruptedException {
+		cache.set("counts::1", "warm", Duration.ofMinutes(1));
+		assertThat(cache.get("counts::1")).isEqualTo("warm");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+		pause();
+
+		// Two timeouts trip the breaker; both are still answered from the local mirror
+		assertThat(cache.get("counts::1")).isEqualTo("warm");
+		assertThat(cache.get("counts::1")).isEqualTo("warm");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		// Open circuit: no waiting on the client timeout
+		long start = System.nanoTime();
+		assertThat(cache.get("counts::1")).isEqualTo("warm");
+		assertThat(cache.multiGet(List.of("counts::1", "counts::2"))).containsExactly("warm", null);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(COMMAND_TIMEOUT);
+
+		// An eviction while Redis is unreachable hides the entry locally and is replayed later
+		cache.delete(List.of("counts::1"));
+		assertThat(cache.get("counts::1")).isNull();
+
+		unpause();
+		Thread.sleep(OPEN_MS + 100);
+
+		// The first call after the open period is the probe; its success closes the circuit
+		cache.get("counts::2");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(redisTemplate.opsForValue().get("counts::1")).isNull();
+	}
+
+	@Test
+	void failedProbeReopensTheCircuit() throws InterruptedException {
+		pause();
+		cache.get("counts::3");
+		cache.get("counts::3");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		Thread.sleep(OPEN_MS + 100);
+		cache.get("counts::3");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	@Test
+	void probeFailingWithANonRedisErrorStillReopensTheCircuit() throws InterruptedException {
+		// A value the JSON serializer cannot read makes the probe throw a SerializationException
+		try (RedisConnection connection = connectionFactory.getConnection()) {
+			connection.stringCommands().set("counts::4".getBytes(StandardCharsets.UTF_8), "not json".getBytes(StandardCharsets.UTF_8));
+		}
+
+		pause();
+		cache.get("counts::3");
+		cache.get("counts::3");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		unpause();
+		Thread.sleep(OPEN_MS + 100);
+		assertThatThrownBy(() -> cache.get("counts::4")).isInstanceOf(SerializationException.class);
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		// Not stuck in HALF_OPEN: the next probe is admitted and closes the circuit
+		Thread.sleep(OPEN_MS + 100);
+		cache.get("counts::3");
+		assertThat(cache.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	private void pause() {
+		DockerClientFactory.instance().client().pauseContainerCmd(redis.getContainerId()).exec();
+	}
+
+	private void unpause() {
+		DockerClientFactory.instance().client().unpauseContainerCmd(redis.getContainerId()).exec();
+	}
+
+	private boolean isPaused() {
+		return Boolean.TRUE.equals(DockerClientFactory.instance().client()
+				.inspectContainerCmd(redis.getContainerId()).exec().getState().getPaused());
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.TicketApp.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoaringBitmapTest {
+
+	@Test
+	void matchesBitSetThroughAddsRemovesAndIntersections() {
+		Random random = new Random(7);
+		// One dense set (status-like, crosses the array/bitset threshold) and one sparse (user-like)
+		RoaringBitmap dense = new RoaringBitmap();
+		RoaringBitmap sparse = new RoaringBitmap();
+		BitSet denseExpected = new BitSet();
+		BitSet sparseExpected = new BitSet();
+		int universe = 300_000;
+
+		for (int i = 0; i < 200_000; i++) {
+			int value = random.nextInt(universe);
+			if (random.nextInt(4) == 0) {
+				assertThat(dense.remove(value)).isEqualTo(denseExpected.get(value));
+				denseExpected.clear(value);
+			} else {
+				assertThat(dense.add(value)).isEqualTo(!denseExpected.get(value));
+				denseExpected.set(value);
+			}
+			if (random.nextInt(50) == 0) {
+				int sparseValue = random.nextInt(universe);
+				sparse.add(sparseValue);
+				sparseExpected.set(sparseValue);
+			}
+		}
+
+		assertThat(dense.cardinality()).isEqualTo(denseExpected.cardinality());
+		assertThat(sparse.cardinality()).isEqualTo(sparseExpected.cardinality());
+		for (int value = 0; value < universe; value += 97) {
+			assertThat(dense.contains(value)).isEqualTo(denseExpected.get(value));
+		}
+
+		BitSet intersection = (BitSet) denseExpected.clone();
+		intersection.and(sparseExpected);
+		assertThat(RoaringBitmap.andCardinality(dense, sparse)).isEqualTo(intersection.cardinality());
+		assertThat(RoaringBitmap.andCardinality(dense, dense)).isEqualTo(denseExpected.cardinality());
+		assertThat(toList(RoaringBitmap.and(sparse, dense))).isEqualTo(descending(intersection));
+		assertThat(toList(RoaringBitmap.and(dense, dense))).isEqualTo(descending(denseExpected));
+	}
+
+	@Test
+	void denseChunksShrinkBackToArraysAndEmptyChunksAreDropped() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		for (int value = 0; value < 10_000; value++) {
+			bitmap.add(value);
+		}
+		long denseBytes = bitmap.sizeInBytes();
+		for (int value = 0; value < 9_990; value++) {
+			bitmap.remove(value);
+		}
+		assertThat(bitmap.cardinality()).isEqualTo(10);
+		assertThat(bitmap.sizeInBytes()).isLessThan(denseBytes);
+
+		for (int value = 9_990; value < 10_000; value++) {
+			bitmap.remove(value);
+		}
+		assertThat(bitmap.isEmpty()).isTrue();
+	}
+
+	@Test
+	void descendingVisitStopsWhenAsked() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+		for (int value : new int[] {3, 70_000, 5, 1 << 20, 65_535}) {
+			bitmap.add(value);
+		}
+		List<Integer> visited = new ArrayList<>();
+		bitmap.forEachDescending(value -> {
+			visited.add(value);
+			return visited.size() < 3;
+		});
+		assertThat(visited).containsExactly(1 << 20, 70_000, 65_535);
+	}
+
+	private static List<Integer> toList(RoaringBitmap bitmap) {
+		List<Integer> values = new ArrayList<>();
+		bitmap.forEachDescending(value -> {
+			values.add(value);
+			return true;
+		});
+		return values;
+	}
+
+	private static List<Integer> descending(BitSet bits) {
+		List<Integer> values = new ArrayList<>();
+		for (int value = bits.previousSetBit(bits.length()); value >= 0; value = bits.previousSetBit(value - 1)) {
+			values.add(value);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,187 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.UserSignRequestDTO;
+import com.example.TicketApp.config.ShardingConfig.ShardDataSources;
+import com.example.TicketApp.constants.Constants;
+import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.entity.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Boots the application against two Postgres shards and checks placement, cross-shard
+// agent reads and moving a customer between shards.
+@SpringBootTest(properties = {
+		"ticketapp.sharding.enabled=true",
+		"ticketapp.ids.worker-id=0",
+		"ticketapp.sharding.move-grace-ms=0",
+		"spring.flyway.enabled=false",
+		"spring.jpa.open-in-view=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardRoutingTest {
+
+	@Container
+	static PostgreSQLContainer<?> shard0 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Container
+	static PostgreSQLContainer<?> shard1 = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Container
+	@ServiceConnection(name = "redis")
+	static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+	private static final AtomicInteger emailCounter = new AtomicInteger();
+
+	@DynamicPropertySource
+	static void shardProperties(DynamicPropertyRegistry registry) {
+		List<PostgreSQLContainer<?>> shards = List.of(shard0, shard1);
+		for (int index = 0; index < shards.size(); index++) {
+			PostgreSQLContainer<?> shard = shards.get(index);
+			registry.add("ticketapp.sharding.shards[" + index + "].url", shard::getJdbcUrl);
+			registry.add("ticketapp.sharding.shards[" + index + "].username", shard::getUsername);
+			registry.add("ticketapp.sharding.shards[" + index + "].password", shard::getPassword);
+		}
+	}
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private ShardRebalancerService shardRebalancerService;
+
+	@Autowired
+	private ShardDataSources shardDataSources;
+
+	private User agent;
+
+	@BeforeAll
+	void createAgent() {
+		agent = signup(Constants.ROLE_AGENT);
+	}
+
+	@Test
+	void ticketsLandOnTheCustomersShardAndUsersOnEveryShard() {
+		for (int i = 0; i < 10; i++) {
+			User customer = signup(Constants.ROLE_CUSTOMER);
+			Ticket ticket = createTicket(customer);
+
+			int shard = shardRouter.shardForCustomer(customer.getUserId());
+			assertThat(shardRouter.homeShardForId(ticket.getTicketId())).isEqualTo(shard);
+			assertThat(countOnShard(shard, "tickets", "ticket_id", ticket.getTicketId())).isEqualTo(1);
+			assertThat(countOnShard(1 - shard, "tickets", "ticket_id", ticket.getTicketId())).isZero();
+			assertThat(countOnShard(0, "users", "user_id", customer.getUserId())).isEqualTo(1);
+			assertThat(countOnShard(1, "users", "user_id", customer.getUserId())).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void agentReadsMergeEveryShard() {
+		List<User> customers = customersOnBothShards();
+		for (User customer : customers) {
+			createTicket(customer);
+			createTicket(customer);
+		}
+
+		long totalTickets = jdbc(0).queryForObject("SELECT count(*) FROM tickets", Long.class)
+				+ jdbc(1).queryForObject("SELECT count(*) FROM tickets", Long.class);
+
+		Map<String, Long> counts = ticketService.computeCounts(agent.getUserId(), Constants.ROLE_AGENT, Constants.STATUS_ALL);
+		assertThat(counts.get(Constants.STATUS_ACTIVE)).isEqualTo(totalTickets);
+
+		Map<String, List<SimpleTicketDTO>> page = ticketService.computeFilteredTickets(agent.getUserId(), Constants.ROLE_AGENT,
+				Constants.STATUS_ALL, PageRequest.of(0, (int) totalTickets + 10));
+		List<SimpleTicketDTO> tickets = page.get("PrebookingTickets");
+		assertThat(tickets).hasSize((int) totalTickets);
+		for (int i = 1; i < tickets.size(); i++) {
+			assertThat(tickets.get(i - 1).getCreatedAt()).isAfterOrEqualTo(tickets.get(i).getCreatedAt());
+		}
+
+		// Second page of size 3 continues where the first one stopped
+		List<SimpleTicketDTO> secondPage = ticketService.computeFilteredTickets(agent.getUserId(), Constants.ROLE_AGENT,
+				Constants.STATUS_ALL, PageRequest.of(1, 3)).get("PrebookingTickets");
+		assertThat(secondPage).extracting(SimpleTicketDTO::getTicketId)
+				.containsExactlyElementsOf(tickets.subList(3, 6).stream().map(SimpleTicketDTO::getTicketId).toList());
+	}
+
+	@Test
+	void movedCustomerIsServedFromTheTargetShard() throws InterruptedException {
+		User customer = signup(Constants.ROLE_CUSTOMER);
+		Ticket ticket = createTicket(customer);
+		int sourceShard = shardRouter.shardForCustomer(customer.getUserId());
+		int targetShard = 1 - sourceShard;
+
+		int moved = shardRebalancerService.moveCustomer(customer.getUserId(), targetShard);
+
+		assertThat(moved).isEqualTo(1);
+		assertThat(shardRouter.shardForCustomer(customer.getUserId())).isEqualTo(targetShard);
+		assertThat(shardRouter.shardForTicket(ticket.getTicketId())).isEqualTo(targetShard);
+		assertThat(countOnShard(sourceShard, "tickets", "ticket_id", ticket.getTicketId())).isZero();
+		assertThat(countOnShard(targetShard, "ticket_summary", "ticket_id", ticket.getTicketId())).isEqualTo(1);
+
+		Map<String, Object> found = ticketService.searchTicket(customer.getUserId(), ticket.getTicketId(), 0, 10);
+		assertThat(found.get("ticketId")).isEqualTo(ticket.getTicketId());
+
+		// New tickets follow the customer to the target shard
+		Ticket newTicket = createTicket(customer);
+		assertThat(countOnShard(targetShard, "tickets", "ticket_id", newTicket.getTicketId())).isEqualTo(1);
+	}
+
+	private List<User> customersOnBothShards() {
+		List<User> customers = new ArrayList<>();
+		boolean[] seen = new boolean[2];
+		while (!seen[0] || !seen[1]) {
+			User customer = signup(Constants.ROLE_CUSTOMER);
+			seen[shardRouter.shardForCustomer(customer.getUserId())] = true;
+			customers.add(customer);
+		}
+		return customers;
+	}
+
+	private User signup(String role) {
+		UserSignRequestDTO request = new UserSignRequestDTO();
+		request.setEmail("shard-user-" + emailCounter.incrementAndGet() + "@example.com");
+		request.setPassword("secret");
+		request.setRole(role);
+		return userService.signup(request);
+	}
+
+	private Ticket createTicket(User customer) {
+		return ticketService.createTicket(customer.getUserId(), null, "created " + LocalDateTime.now(), Constants.ROLE_CUSTOMER);
+	}
+
+	private long countOnShard(int shard, String table, String idColumn, long id) {
+		return jdbc(shard).queryForObject("SELECT count(*) FROM " + table + " WHERE " + idColumn + " = ?", Long.class, id);
+	}
+
+	private JdbcTemplate jdbc(int shard) {
+		return new JdbcTemplate(shardDataSources.get(shard));
+	}
+}
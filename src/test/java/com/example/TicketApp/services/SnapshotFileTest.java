@@ -0,0 +1,85 @@
+package com.example.TicketApp.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotFileTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void payloadRoundTrips() throws Exception {
+		Path file = directory.resolve("nested/index.snapshot");
+		SnapshotFile.write(file, 3, 12, buffer -> buffer.putLong(42L).putInt(7));
+
+		ByteBuffer payload = SnapshotFile.read(file, 3);
+		assertThat(payload.remaining()).isEqualTo(12);
+		assertThat(payload.getLong()).isEqualTo(42L);
+		assertThat(payload.getInt()).isEqualTo(7);
+		assertThat(Files.exists(directory.resolve("nested/index.snapshot.tmp"))).isFalse();
+	}
+
+	@Test
+	void rewritingReplacesThePreviousSnapshot() throws Exception {
+		Path file = directory.resolve("index.snapshot");
+		SnapshotFile.write(file, 1, 8, buffer -> buffer.putLong(1L));
+		SnapshotFile.write(file, 1, 4, buffer -> buffer.putInt(2));
+
+		ByteBuffer payload = SnapshotFile.read(file, 1);
+		assertThat(payload.remaining()).isEqualTo(4);
+		assertThat(payload.getInt()).isEqualTo(2);
+	}
+
+	@Test
+	void anotherFormatVersionIsRejected() throws Exception {
+		Path file = directory.resolve("index.snapshot");
+		SnapshotFile.write(file, 1, 8, buffer -> buffer.putLong(1L));
+
+		assertThatThrownBy(() -> SnapshotFile.read(file, 2)).isInstanceOf(IOException.class)
+				.hasMessageContaining("format version");
+	}
+
+	@Test
+	void corruptedOrTruncatedFilesAreRejected() throws Exception {
+		Path file = directory.resolve("index.snapshot");
+		SnapshotFile.write(file, 1, 16, buffer -> buffer.putLong(1L).putLong(2L));
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 20);
+		}
+		assertThatThrownBy(() -> SnapshotFile.read(file, 1)).isInstanceOf(IOException.class)
+				.hasMessageContaining("checksum");
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(24);
+		}
+		assertThatThrownBy(() -> SnapshotFile.read(file, 1)).isInstanceOf(IOException.class)
+				.hasMessageContaining("truncated");
+	}
+
+	@Test
+	void aShortPayloadFailsTheWrite() {
+		Path file = directory.resolve("index.snapshot");
+		assertThatThrownBy(() -> SnapshotFile.write(file, 1, 16, buffer -> buffer.putLong(1L)))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(Files.exists(file)).isFalse();
+	}
+
+	@Test
+	void aMissingFileIsReported() {
+		assertThatThrownBy(() -> SnapshotFile.read(directory.resolve("missing.snapshot"), 1))
+				.isInstanceOf(NoSuchFileException.class);
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.TicketApp.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdGeneratorTest {
+
+	@Test
+	void idsAreUniqueAcrossThreadsAndNodes() throws Exception {
+		int nodes = 4;
+		int threadsPerNode = 8;
+		int idsPerThread = 50_000;
+
+		List<TimeOrderedIdGenerator> generators = new ArrayList<>();
+		for (int worker = 0; worker < nodes; worker++) {
+			generators.add(new TimeOrderedIdGenerator(worker));
+		}
+
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (TimeOrderedIdGenerator generator : generators) {
+				for (int thread = 0; thread < threadsPerNode; thread++) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						long previous = 0;
+						for (int i = 0; i < idsPerThread; i++) {
+							long id = generator.nextId(0);
+							// Each thread sees its generator's ids strictly increase
+							assertThat(id).isGreaterThan(previous);
+							previous = id;
+							ids.add(id);
+						}
+						return null;
+					}));
+				}
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(ids).hasSize(nodes * threadsPerNode * idsPerThread);
+	}
+
+	@Test
+	void idsSortByCreationTime() {
+		AtomicLong clock = new AtomicLong(TimeOrderedIdGenerator.EPOCH + 1_000);
+		TimeOrderedIdGenerator early = new TimeOrderedIdGenerator(63, clock::get);
+		TimeOrderedIdGenerator late = new TimeOrderedIdGenerator(0, clock::get);
+
+		long first = early.nextId(0);
+		clock.addAndGet(1);
+		long second = late.nextId(0);
+
+		// The higher worker id does not outrank a later millisecond
+		assertThat(second).isGreaterThan(first);
+		assertThat(TimeOrderedIdGenerator.timestampOf(first)).isEqualTo(TimeOrderedIdGenerator.EPOCH + 1_000);
+		assertThat(TimeOrderedIdGenerator.timestampOf(second)).isEqualTo(TimeOrderedIdGenerator.EPOCH + 1_001);
+	}
+
+	@Test
+	void sequenceOverflowAndClockStepBackStayMonotonic() {
+		AtomicLong clock = new AtomicLong(TimeOrderedIdGenerator.EPOCH + 5_000);
+		TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock::get);
+
+		long previous = 0;
+		for (int i = 0; i < 3 * (1 << TimeOrderedIdGenerator.SEQUENCE_BITS); i++) {
+			long id = generator.nextId(0);
+			assertThat(id).isGreaterThan(previous);
+			previous = id;
+		}
+
+		clock.addAndGet(-2_000);
+		assertThat(generator.nextId(0)).isGreaterThan(previous);
+	}
+
+	@Test
+	void fieldsRoundTrip() {
+		TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(42);
+		long id = generator.nextId(7);
+
+		assertThat(id).isPositive();
+		assertThat(TimeOrderedIdGenerator.isGenerated(id)).isTrue();
+		assertThat(TimeOrderedIdGenerator.shardOf(id)).isEqualTo(7);
+		assertThat(TimeOrderedIdGenerator.workerOf(id)).isEqualTo(42);
+		// The last id of the last shard's identity range must still read as a database id
+		assertThat(TimeOrderedIdGenerator.isGenerated(ShardRouter.MAX_SHARDS * ShardRouter.ID_RANGE_PER_SHARD - 1)).isFalse();
+	}
+
+	@Test
+	void rejectsOutOfRangeWorkerAndShard() {
+		assertThatThrownBy(() -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_WORKERS))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TimeOrderedIdGenerator(0).nextId(TimeOrderedIdGenerator.MAX_SHARDS))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}